@@ -0,0 +1,213 @@
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A table with variable spacing that meets a maximum linear interpolation error with as few entries as it
+ * can: the range is cut into equal segments, and each segment gets its own number of evenly spaced entries,
+ * just enough for its part of the function. Flat parts take a few entries and steep parts (like tan near its
+ * poles) take many.<br>
+ * The entries of segment s are entries[offsets[s]] to entries[offsets[s + 1] - 1], and include both ends of
+ * the segment, so a lookup finds its segment with one multiply and interpolates inside it like in a uniform
+ * table. The number of entries of a segment starts from the error of a coarse sampling and is raised (the
+ * error of linear interpolation goes down with the square of the spacing) until the error measured between
+ * the entries is within the budget.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class AdaptiveTable {
+
+    /** The number of segments used when none is given */
+    public static final int defaultSegments = 64;
+
+    /** The most entries that one segment can take before it gives up on the error budget */
+    private static final int maxEntriesPerSegment = 1 << 20;
+
+    /** The number of points checked in each interval between two entries (an odd number, so the middle is one) */
+    private static final int checksPerInterval = 3;
+
+    /** The x at the start of the table */
+    private final double start;
+
+    /** The width of each segment */
+    private final double segmentWidth;
+
+    /** The start of each segment's entries, with the total number of entries at the end */
+    private final int[] offsets;
+
+    /** The entries of every segment, one after the other */
+    private final double[] entries;
+
+    /** The largest interpolation error that was measured in the segments that met the budget */
+    private final double maxError;
+
+    /** The number of segments that could not meet the error budget (a pole, or too steep) */
+    private final int segmentsOverBudget;
+
+    /** The smallest spacing of the entries of any segment */
+    private final double smallestSpacing;
+
+    /**
+     * Build a table
+     *
+     * @param function    The function to tabulate
+     * @param start       The x of the first entry
+     * @param stop        The x of the last entry
+     * @param segments    The number of segments to cut the range into
+     * @param errorBudget The largest error that linear interpolation between the entries may have
+     * @throws IllegalArgumentException If the range is empty, there are no segments or the budget is not positive
+     */
+    public AdaptiveTable(DoubleUnaryOperator function, double start, double stop, int segments,
+                         double errorBudget) {
+        if (!(start < stop) || Double.isInfinite(stop - start))
+            throw new IllegalArgumentException("The range is empty or not finite: " + start + " to " + stop);
+        if (segments < 1)
+            throw new IllegalArgumentException("There must be at least one segment: " + segments);
+        if (!(errorBudget > 0))
+            throw new IllegalArgumentException("The error budget must be positive: " + errorBudget);
+
+        this.start = start;
+        this.segmentWidth = (stop - start) / segments;
+        this.offsets = new int[segments + 1];
+
+        // Pick the number of entries of each segment, then lay them out
+        int[] counts = new int[segments];
+        double largestError = 0;
+        int overBudget = 0;
+        double spacing = Double.POSITIVE_INFINITY;
+        for (int segment = 0; segment < segments; segment++) {
+            double segmentStart = start + segment * segmentWidth;
+            double segmentStop = segment == segments - 1 ? stop : segmentStart + segmentWidth;
+
+            int count = 2;
+            double error = intervalError(function, segmentStart, segmentStop, count);
+            while (!(error <= errorBudget) && count < maxEntriesPerSegment && Double.isFinite(error)) {
+                // The error goes with the square of the spacing, plus 10% so that it rarely takes a third try
+                double scale = Math.sqrt(error / errorBudget) * 1.1;
+                count = (int) Math.min(maxEntriesPerSegment, Math.max(count + 1, Math.ceil((count - 1) * scale) + 1));
+                error = intervalError(function, segmentStart, segmentStop, count);
+            }
+            if (error <= errorBudget)
+                largestError = Math.max(largestError, error);
+            else
+                overBudget++;
+
+            counts[segment] = count;
+            offsets[segment + 1] = offsets[segment] + count;
+            spacing = Math.min(spacing, (segmentStop - segmentStart) / (count - 1));
+        }
+
+        this.entries = new double[offsets[segments]];
+        for (int segment = 0; segment < segments; segment++) {
+            double segmentStart = start + segment * segmentWidth;
+            double segmentStop = segment == segments - 1 ? stop : segmentStart + segmentWidth;
+            for (int i = 0; i < counts[segment]; i++)
+                entries[offsets[segment] + i] = function.applyAsDouble(
+                        segmentStart + i * (segmentStop - segmentStart) / (counts[segment] - 1));
+        }
+
+        this.maxError = largestError;
+        this.segmentsOverBudget = overBudget;
+        this.smallestSpacing = spacing;
+    }
+
+    /**
+     * Measure the largest error of linear interpolation between evenly spaced entries
+     *
+     * @param function The function to tabulate
+     * @param from     The x of the first entry
+     * @param to       The x of the last entry
+     * @param count    The number of entries
+     * @return Returns the largest error at the checked points (NaN or infinite if the function is not finite)
+     */
+    private static double intervalError(DoubleUnaryOperator function, double from, double to, int count) {
+        double spacing = (to - from) / (count - 1);
+        double largestError = 0;
+        double left = function.applyAsDouble(from);
+        for (int interval = 0; interval < count - 1; interval++) {
+            double right = function.applyAsDouble(from + (interval + 1) * spacing);
+            for (int check = 1; check <= checksPerInterval; check++) {
+                double t = check / (checksPerInterval + 1.0);
+                double exact = function.applyAsDouble(from + (interval + t) * spacing);
+                double error = Math.abs(left + t * (right - left) - exact);
+                if (!Double.isFinite(error))
+                    return error;
+                largestError = Math.max(largestError, error);
+            }
+            left = right;
+        }
+        return largestError;
+    }
+
+    /**
+     * Look up a value by interpolating linearly between the entries of its segment
+     *
+     * @param x The value to be passed to the function (clamped to the range of the table)
+     * @return Returns the value from the table
+     */
+    public double lookup(double x) {
+        int segments = offsets.length - 1;
+        double u = Math.max(0, Math.min(segments, (x - start) / segmentWidth));
+        int segment = Math.min(segments - 1, (int) u);
+        int first = offsets[segment];
+        double position = (u - segment) * (offsets[segment + 1] - first - 1);
+        int below = Math.min((int) position, offsets[segment + 1] - first - 2);
+        double t = position - below;
+        return entries[first + below] + t * (entries[first + below + 1] - entries[first + below]);
+    }
+
+    /**
+     * Get the start of each segment's entries
+     *
+     * @return Returns the offsets (one per segment, then the total number of entries)
+     */
+    public int[] offsets() {
+        return offsets.clone();
+    }
+
+    /**
+     * Get the entries
+     *
+     * @return Returns the entries of every segment, one after the other
+     */
+    public double[] entries() {
+        return entries.clone();
+    }
+
+    /**
+     * Get the number of entries
+     *
+     * @return Returns the size of the table
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Get the largest interpolation error that was measured while building the table
+     *
+     * @return Returns the error (not counting the segments that could not meet the budget)
+     */
+    public double maxError() {
+        return maxError;
+    }
+
+    /**
+     * Get the number of segments that could not meet the error budget
+     *
+     * @return Returns the number of segments (0 if the whole table is within the budget)
+     */
+    public int segmentsOverBudget() {
+        return segmentsOverBudget;
+    }
+
+    /**
+     * Work out how many entries a uniform table would need for the same error (its spacing has to be as
+     * fine as the finest segment)
+     *
+     * @return Returns the number of entries
+     */
+    public long uniformSize() {
+        double span = segmentWidth * (offsets.length - 1);
+        return (long) Math.ceil(span / smallestSpacing - 1e-9) + 1;
+    }
+}
@@ -0,0 +1,87 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a TrigTableGenerator table as raw packed entries with no header (ready to be memory-mapped or
+ * linked into firmware as a blob), in any element type and byte order.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class BinaryTableExporter implements TableExporter {
+
+    /** The size of the blocks that are written to the channel */
+    private static final int blockSize = 1 << 16;
+
+    /** The channel to write to */
+    private final WritableByteChannel output;
+
+    /** The type to write the entries as */
+    private final ElementTypes elementType;
+
+    /** The block that the output is collected in */
+    private final ByteBuffer block;
+
+    /**
+     * Start a table
+     *
+     * @param output      The channel to write to
+     * @param elementType The type to write the entries as
+     * @param byteOrder   The byte order of the entries
+     */
+    public BinaryTableExporter(WritableByteChannel output, ElementTypes elementType, ByteOrder byteOrder) {
+        this.output = output;
+        this.elementType = elementType;
+        this.block = ByteBuffer.allocate(blockSize).order(byteOrder);
+    }
+
+    /**
+     * Write the next entry of the table
+     *
+     * @param value The value of the entry
+     * @throws IOException If the channel could not be written
+     */
+    @Override
+    public void write(double value) throws IOException {
+        if (block.remaining() < elementType.byteWidth)
+            flush();
+
+        switch (elementType) {
+            case FLOAT64:
+                block.putDouble(value);
+                break;
+            case FLOAT32:
+                block.putFloat((float) value);
+                break;
+            case Q15:
+                block.putShort((short) elementType.quantize(value));
+                break;
+            default:
+                block.putInt((int) elementType.quantize(value));
+        }
+    }
+
+    /**
+     * Write everything that is left in the block (the channel is not closed)
+     *
+     * @throws IOException If the channel could not be written
+     */
+    @Override
+    public void finish() throws IOException {
+        flush();
+    }
+
+    /**
+     * Write the block to the channel
+     *
+     * @throws IOException If the channel could not be written
+     */
+    private void flush() throws IOException {
+        block.flip();
+        while (block.hasRemaining())
+            output.write(block);
+        block.clear();
+    }
+}
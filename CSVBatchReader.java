@@ -0,0 +1,84 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads a CSV file into reusable {@link CSVColumnBatch}es, so that the rows can be processed column by
+ * column in tight loops. The bytes are decoded straight from a {@link MappedCSVScanner} following the
+ * batch's {@link CSVSchema}.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class CSVBatchReader implements Closeable {
+
+    /** The default delimiter that we are using for parsing the columns */
+    private static final char defaultDelimiter = ',';
+
+    /** The scanner that the rows are read from */
+    private final MappedCSVScanner scanner;
+
+    /** The decoder that fills the batches */
+    private final CSVTypedDecoder decoder;
+
+    /** The number of rows read so far */
+    private long rowNumber = 0;
+
+    /**
+     * Open a file to be read in batches using the default delimiter of ','
+     *
+     * @param file The CSV file to read
+     * @param schema The types of the columns
+     * @throws IOException If the file could not be opened
+     */
+    public CSVBatchReader(Path file, CSVSchema schema) throws IOException {
+        this(file, defaultDelimiter, schema);
+    }
+
+    /**
+     * Open a file to be read in batches using a custom delimiter
+     *
+     * @param file The CSV file to read
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     * @param schema The types of the columns
+     * @throws IOException If the file could not be opened
+     */
+    public CSVBatchReader(Path file, char parsingDelimiter, CSVSchema schema) throws IOException {
+        this.scanner = new MappedCSVScanner(file, parsingDelimiter);
+        this.decoder = new CSVTypedDecoder(schema);
+    }
+
+    /**
+     * Replace the contents of a batch with the next rows of the file
+     *
+     * @param batch The batch to fill (its schema should match the one that the reader was created with)
+     * @return Returns true if at least one row was read, false at the end of the file
+     * @throws IOException If the file could not be read
+     * @throws NumberFormatException If a numeric column is not a valid number
+     */
+    public boolean nextBatch(CSVColumnBatch batch) throws IOException {
+        batch.clear();
+        while (!batch.isFull() && scanner.next())
+            decoder.decodeRecord(scanner.record(), rowNumber++, batch);
+        return batch.rowCount() > 0;
+    }
+
+    /**
+     * Get the number of rows read so far
+     *
+     * @return Returns the total number of rows put into batches
+     */
+    public long rowsRead() {
+        return rowNumber;
+    }
+
+    /**
+     * Close the file
+     *
+     * @throws IOException If the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        scanner.close();
+    }
+}
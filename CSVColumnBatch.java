@@ -0,0 +1,229 @@
+import java.util.Arrays;
+
+/**
+ * A fixed-size batch of CSV rows stored column by column (struct-of-arrays).
+ * INT, LONG and DOUBLE columns are plain int[], long[] and double[] arrays, and every STRING column is one
+ * char[] holding the text of all of its rows plus an int[] of offsets (row r is the chars from offsets[r]
+ * to offsets[r + 1]). The arrays are allocated once and reused by every batch that is read into them,
+ * so reading a file batch by batch does not allocate anything per column or per row (the char arrays only
+ * grow when a batch holds more text than any batch before it).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class CSVColumnBatch implements CSVColumnHandler {
+
+    /** The default number of rows per batch */
+    private static final int defaultCapacity = 4096;
+
+    /** The number of chars per row that the string columns start with room for */
+    private static final int initialCharsPerRow = 16;
+
+    /** The types of the columns */
+    private final CSVSchema schema;
+
+    /** The maximum number of rows in the batch */
+    private final int capacity;
+
+    /** The array holding each column (an int[], long[], double[] or char[], or null if skipped) */
+    private final Object[] columns;
+
+    /** The row offsets into the char[] of each STRING column (null for other columns) */
+    private final int[][] stringOffsets;
+
+    /** The number of rows in the batch */
+    private int rowCount = 0;
+
+    /**
+     * Create a batch with room for the default of 4096 rows
+     *
+     * @param schema The types of the columns
+     */
+    public CSVColumnBatch(CSVSchema schema) {
+        this(schema, defaultCapacity);
+    }
+
+    /**
+     * Create a batch with room for a custom number of rows
+     *
+     * @param schema The types of the columns
+     * @param capacity The maximum number of rows in the batch
+     */
+    public CSVColumnBatch(CSVSchema schema, int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("The batch capacity must be positive: " + capacity);
+
+        this.schema = schema;
+        this.capacity = capacity;
+        this.columns = new Object[schema.columnCount()];
+        this.stringOffsets = new int[schema.columnCount()][];
+
+        for (int i = 0; i < columns.length; i++) {
+            switch (schema.columnType(i)) {
+                case INT:
+                    columns[i] = new int[capacity];
+                    break;
+                case LONG:
+                    columns[i] = new long[capacity];
+                    break;
+                case DOUBLE:
+                    columns[i] = new double[capacity];
+                    break;
+                case STRING:
+                    columns[i] = new char[capacity * initialCharsPerRow];
+                    stringOffsets[i] = new int[capacity + 1];
+                    break;
+                case SKIP:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Get the types of the columns in the batch
+     *
+     * @return Returns the schema of the batch
+     */
+    public CSVSchema schema() {
+        return schema;
+    }
+
+    /**
+     * Get the maximum number of rows in the batch
+     *
+     * @return Returns the capacity of the batch
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of rows in the batch
+     *
+     * @return Returns the number of valid entries in each column
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Check if the batch has no more room
+     *
+     * @return Returns true if the batch holds capacity() rows
+     */
+    public boolean isFull() {
+        return rowCount == capacity;
+    }
+
+    /**
+     * Remove all of the rows (keeping the arrays for the next batch)
+     */
+    public void clear() {
+        rowCount = 0;
+    }
+
+    /**
+     * Get the values of an INT column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the column's array (only the first rowCount() entries are valid)
+     * @throws ClassCastException If the column is not an INT column
+     */
+    public int[] ints(int column) {
+        return (int[]) columns[column];
+    }
+
+    /**
+     * Get the values of a LONG column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the column's array (only the first rowCount() entries are valid)
+     * @throws ClassCastException If the column is not a LONG column
+     */
+    public long[] longs(int column) {
+        return (long[]) columns[column];
+    }
+
+    /**
+     * Get the values of a DOUBLE column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the column's array (only the first rowCount() entries are valid)
+     * @throws ClassCastException If the column is not a DOUBLE column
+     */
+    public double[] doubles(int column) {
+        return (double[]) columns[column];
+    }
+
+    /**
+     * Get the text of all of the rows of a STRING column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the column's chars (see {@link #stringOffsets(int)} for where each row is)
+     * @throws ClassCastException If the column is not a STRING column
+     */
+    public char[] stringChars(int column) {
+        return (char[]) columns[column];
+    }
+
+    /**
+     * Get where each row's text is in a STRING column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the offsets of the column (row r is stringChars()[offsets[r]] to offsets[r + 1],
+     *         only the first rowCount() + 1 entries are valid)
+     * @throws NullPointerException If the column is not a STRING column
+     */
+    public int[] stringOffsets(int column) {
+        if (stringOffsets[column] == null)
+            throw new NullPointerException("Column " + column + " is not a STRING column");
+        return stringOffsets[column];
+    }
+
+    /**
+     * Build a String from one row of a STRING column (this allocates, it is meant for convenience)
+     *
+     * @param column The column number (starting at 0)
+     * @param row    The row number in the batch
+     * @return Returns the text of the row
+     */
+    public String getString(int column, int row) {
+        int[] offsets = stringOffsets(column);
+        return new String(stringChars(column), offsets[row], offsets[row + 1] - offsets[row]);
+    }
+
+    @Override
+    public void intValue(int column, int value) {
+        ((int[]) columns[column])[rowCount] = value;
+    }
+
+    @Override
+    public void longValue(int column, long value) {
+        ((long[]) columns[column])[rowCount] = value;
+    }
+
+    @Override
+    public void doubleValue(int column, double value) {
+        ((double[]) columns[column])[rowCount] = value;
+    }
+
+    @Override
+    public void stringValue(int column, CSVRecordView record) {
+        int[] offsets = stringOffsets[column];
+        char[] chars = (char[]) columns[column];
+        int start = offsets[rowCount];
+
+        // The decoded text is never longer than its bytes
+        int needed = start + record.length(column);
+        if (needed > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(needed, chars.length * 2));
+            columns[column] = chars;
+        }
+        offsets[rowCount + 1] = start + record.getChars(column, chars, start);
+    }
+
+    @Override
+    public void endRow(long row) {
+        rowCount++;
+    }
+}
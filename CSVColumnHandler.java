@@ -0,0 +1,55 @@
+/**
+ * Receives the decoded columns of every row from a {@link CSVTypedDecoder}.
+ * The methods are called once per (non-skipped) column in column order, followed by endRow().
+ * Every method does nothing by default so that a handler only has to implement the types it uses.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public interface CSVColumnHandler {
+
+    /**
+     * Receive the value of an INT column
+     *
+     * @param column The column number (starting at 0)
+     * @param value  The decoded value
+     */
+    default void intValue(int column, int value) {
+    }
+
+    /**
+     * Receive the value of a LONG column
+     *
+     * @param column The column number (starting at 0)
+     * @param value  The decoded value
+     */
+    default void longValue(int column, long value) {
+    }
+
+    /**
+     * Receive the value of a DOUBLE column
+     *
+     * @param column The column number (starting at 0)
+     * @param value  The decoded value
+     */
+    default void doubleValue(int column, double value) {
+    }
+
+    /**
+     * Receive a STRING column. The column is passed as part of the record view so that the handler can
+     * decide whether to build a String, compare the bytes or ignore it.
+     *
+     * @param column The column number (starting at 0)
+     * @param record The view of the current row (only valid during the call)
+     */
+    default void stringValue(int column, CSVRecordView record) {
+    }
+
+    /**
+     * Called after all of the columns of a row have been passed
+     *
+     * @param row The row number (starting at 0)
+     */
+    default void endRow(long row) {
+    }
+}
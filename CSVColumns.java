@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+/**
+ * Primitive column arrays filled by a {@link CSVTypedDecoder}.
+ * INT, LONG and DOUBLE columns are stored in int[], long[] and double[] arrays and STRING columns in String[]
+ * arrays (SKIP columns are not stored). The arrays grow as rows are added, so they may be longer than the
+ * number of rows: only the first rowCount() entries of each array are valid.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class CSVColumns implements CSVColumnHandler {
+
+    /** The number of rows that there is room for at first */
+    private static final int initialCapacity = 1024;
+
+    /** The types of the columns */
+    private final CSVSchema schema;
+
+    /** The array holding each column (an int[], long[], double[] or String[], or null if skipped) */
+    private final Object[] columns;
+
+    /** The number of complete rows stored */
+    private int rowCount = 0;
+
+    /** The number of rows that the arrays have room for */
+    private int capacity = initialCapacity;
+
+    /**
+     * Create empty columns for a schema
+     *
+     * @param schema The types of the columns
+     */
+    public CSVColumns(CSVSchema schema) {
+        this.schema = schema;
+        this.columns = new Object[schema.columnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            switch (schema.columnType(i)) {
+                case INT:
+                    columns[i] = new int[capacity];
+                    break;
+                case LONG:
+                    columns[i] = new long[capacity];
+                    break;
+                case DOUBLE:
+                    columns[i] = new double[capacity];
+                    break;
+                case STRING:
+                    columns[i] = new String[capacity];
+                    break;
+                case SKIP:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Get the number of rows stored
+     *
+     * @return Returns the number of valid entries in each column array
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the values of an INT column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the backing array of the column (only the first rowCount() entries are valid)
+     * @throws ClassCastException If the column is not an INT column
+     */
+    public int[] ints(int column) {
+        return (int[]) columns[column];
+    }
+
+    /**
+     * Get the values of a LONG column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the backing array of the column (only the first rowCount() entries are valid)
+     * @throws ClassCastException If the column is not a LONG column
+     */
+    public long[] longs(int column) {
+        return (long[]) columns[column];
+    }
+
+    /**
+     * Get the values of a DOUBLE column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the backing array of the column (only the first rowCount() entries are valid)
+     * @throws ClassCastException If the column is not a DOUBLE column
+     */
+    public double[] doubles(int column) {
+        return (double[]) columns[column];
+    }
+
+    /**
+     * Get the values of a STRING column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the backing array of the column (only the first rowCount() entries are valid)
+     * @throws ClassCastException If the column is not a STRING column
+     */
+    public String[] strings(int column) {
+        return (String[]) columns[column];
+    }
+
+    @Override
+    public void intValue(int column, int value) {
+        ((int[]) columns[column])[rowCount] = value;
+    }
+
+    @Override
+    public void longValue(int column, long value) {
+        ((long[]) columns[column])[rowCount] = value;
+    }
+
+    @Override
+    public void doubleValue(int column, double value) {
+        ((double[]) columns[column])[rowCount] = value;
+    }
+
+    @Override
+    public void stringValue(int column, CSVRecordView record) {
+        ((String[]) columns[column])[rowCount] = record.getString(column);
+    }
+
+    @Override
+    public void endRow(long row) {
+        rowCount++;
+
+        // Always keep room for the next row
+        if (rowCount == capacity) {
+            if (capacity == Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("Too many rows to store in arrays: " + rowCount);
+            capacity = (int) Math.min((long) capacity * 2, Integer.MAX_VALUE - 8);
+
+            for (int i = 0; i < columns.length; i++) {
+                switch (schema.columnType(i)) {
+                    case INT:
+                        columns[i] = Arrays.copyOf((int[]) columns[i], capacity);
+                        break;
+                    case LONG:
+                        columns[i] = Arrays.copyOf((long[]) columns[i], capacity);
+                        break;
+                    case DOUBLE:
+                        columns[i] = Arrays.copyOf((double[]) columns[i], capacity);
+                        break;
+                    case STRING:
+                        columns[i] = Arrays.copyOf((String[]) columns[i], capacity);
+                        break;
+                    case SKIP:
+                        break;
+                }
+            }
+        }
+    }
+}
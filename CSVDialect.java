@@ -0,0 +1,177 @@
+/**
+ * Describes the flavor of CSV that a {@link CSVParser} reads: the delimiter, the quote character, an optional
+ * escape character, whether unquoted whitespace around the columns is trimmed, and an optional prefix that
+ * marks comment lines. Dialects are immutable, the with...() methods return modified copies.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class CSVDialect {
+
+    /** The value of the escape character when there is no escape character */
+    public static final char noEscape = '\0';
+
+    /** The dialect used by the static CSVParser methods: ',' delimited, '"' quoted, nothing else */
+    public static final CSVDialect defaultDialect = new CSVDialect(',');
+
+    /** The delimiter that separates the columns */
+    private final char delimiter;
+
+    /** The character that starts and ends a quoted section (two in a row mean a literal quote) */
+    private final char quote;
+
+    /** The character that makes the next character literal (or noEscape) */
+    private final char escape;
+
+    /** Whether unquoted whitespace at the start and end of each column is removed */
+    private final boolean trimWhitespace;
+
+    /** The prefix of lines that should be ignored (or null) */
+    private final String commentPrefix;
+
+    /**
+     * Create a dialect with a custom delimiter and the default '"' quotes
+     *
+     * @param delimiter The delimiter that separates the columns
+     */
+    public CSVDialect(char delimiter) {
+        this(delimiter, '\"', noEscape, false, null);
+    }
+
+    /**
+     * Create a fully custom dialect
+     *
+     * @param delimiter      The delimiter that separates the columns
+     * @param quote          The character that starts and ends a quoted section
+     * @param escape         The character that makes the next character literal (or noEscape)
+     * @param trimWhitespace Whether unquoted whitespace at the start and end of each column is removed
+     * @param commentPrefix  The prefix of lines that should be ignored (or null for no comments)
+     * @throws IllegalArgumentException If the delimiter, quote and escape characters are not all different
+     */
+    public CSVDialect(char delimiter, char quote, char escape, boolean trimWhitespace, String commentPrefix) {
+        if (delimiter == quote || (escape != noEscape && (delimiter == escape || quote == escape)))
+            throw new IllegalArgumentException("The delimiter, quote and escape characters must all be different");
+        if (commentPrefix != null && commentPrefix.isEmpty())
+            throw new IllegalArgumentException("The comment prefix cannot be empty");
+
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.escape = escape;
+        this.trimWhitespace = trimWhitespace;
+        this.commentPrefix = commentPrefix;
+    }
+
+    /**
+     * Get the delimiter that separates the columns
+     *
+     * @return Returns the delimiter
+     */
+    public char delimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Get the character that starts and ends a quoted section
+     *
+     * @return Returns the quote character
+     */
+    public char quote() {
+        return quote;
+    }
+
+    /**
+     * Get the character that makes the next character literal
+     *
+     * @return Returns the escape character, or noEscape if there is none
+     */
+    public char escape() {
+        return escape;
+    }
+
+    /**
+     * Check if the dialect has an escape character
+     *
+     * @return Returns true if the escape character is not noEscape
+     */
+    public boolean hasEscape() {
+        return escape != noEscape;
+    }
+
+    /**
+     * Check if unquoted whitespace at the start and end of each column is removed
+     *
+     * @return Returns true if the columns are trimmed
+     */
+    public boolean trimWhitespace() {
+        return trimWhitespace;
+    }
+
+    /**
+     * Get the prefix of lines that should be ignored
+     *
+     * @return Returns the comment prefix, or null if there are no comments
+     */
+    public String commentPrefix() {
+        return commentPrefix;
+    }
+
+    /**
+     * Check if a line is a comment in this dialect
+     *
+     * @param line The line to check
+     * @return Returns true if the line starts with the comment prefix
+     */
+    public boolean isComment(String line) {
+        return commentPrefix != null && line.startsWith(commentPrefix);
+    }
+
+    /**
+     * Copy this dialect with a different delimiter
+     *
+     * @param delimiter The delimiter that separates the columns
+     * @return Returns the new dialect
+     */
+    public CSVDialect withDelimiter(char delimiter) {
+        return new CSVDialect(delimiter, quote, escape, trimWhitespace, commentPrefix);
+    }
+
+    /**
+     * Copy this dialect with a different quote character
+     *
+     * @param quote The character that starts and ends a quoted section
+     * @return Returns the new dialect
+     */
+    public CSVDialect withQuote(char quote) {
+        return new CSVDialect(delimiter, quote, escape, trimWhitespace, commentPrefix);
+    }
+
+    /**
+     * Copy this dialect with a different escape character
+     *
+     * @param escape The character that makes the next character literal (or noEscape)
+     * @return Returns the new dialect
+     */
+    public CSVDialect withEscape(char escape) {
+        return new CSVDialect(delimiter, quote, escape, trimWhitespace, commentPrefix);
+    }
+
+    /**
+     * Copy this dialect with whitespace trimming turned on or off
+     *
+     * @param trimWhitespace Whether unquoted whitespace at the start and end of each column is removed
+     * @return Returns the new dialect
+     */
+    public CSVDialect withTrimWhitespace(boolean trimWhitespace) {
+        return new CSVDialect(delimiter, quote, escape, trimWhitespace, commentPrefix);
+    }
+
+    /**
+     * Copy this dialect with a different comment prefix
+     *
+     * @param commentPrefix The prefix of lines that should be ignored (or null for no comments)
+     * @return Returns the new dialect
+     */
+    public CSVDialect withCommentPrefix(String commentPrefix) {
+        return new CSVDialect(delimiter, quote, escape, trimWhitespace, commentPrefix);
+    }
+}
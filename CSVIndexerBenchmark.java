@@ -0,0 +1,128 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Compares the scalar and Vector API CSV record indexers on wide rows.
+ * Run with <code>--add-modules jdk.incubator.vector</code> to get the vector engine
+ * (without it both runs use the scalar engine).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class CSVIndexerBenchmark {
+
+    /** Default number of rows in the generated data */
+    private static final int defaultRows = 20000;
+
+    /** Default number of columns per row in the generated data */
+    private static final int defaultColumns = 200;
+
+    /** Number of untimed passes before measuring */
+    private static final int warmupPasses = 10;
+
+    /** Number of timed passes (the best one is reported) */
+    private static final int timedPasses = 10;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args Optionally the number of rows and the number of columns per row
+     */
+    public static void main(String[] args) {
+        int rows = defaultRows;
+        int columns = defaultColumns;
+        try {
+            if (args.length > 0)
+                rows = Integer.parseInt(args[0]);
+            if (args.length > 1)
+                columns = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            System.out.println("USAGE:\n    $ java --add-modules jdk.incubator.vector CSVIndexerBenchmark [rows [columns]]");
+            System.exit(1);
+        }
+
+        ByteBuffer data = generateData(rows, columns);
+        System.out.println("Data: " + rows + " rows x " + columns + " columns (" + data.limit() / 1024 + " KiB)");
+
+        CSVRecordIndexer scalar = CSVRecordIndexer.scalar();
+        CSVRecordIndexer vector = CSVRecordIndexer.vectorEngine();
+        if (vector == scalar || vector.getClass() == scalar.getClass())
+            System.out.println("Warning: the Vector API is not available, both runs use the scalar engine");
+        else if (CSVRecordIndexer.vector().getClass() == scalar.getClass())
+            System.out.println("Note: CSVRecordIndexer.vector() picks the scalar engine on this JDK");
+
+        double scalarRate = measure("scalar", scalar, data);
+        double vectorRate = measure("vector", vector, data);
+        System.out.printf("Speedup: %.2fx%n", vectorRate / scalarRate);
+    }
+
+    /**
+     * Time how fast an indexer gets through the data
+     *
+     * @param name    The name to print for the indexer
+     * @param indexer The indexer to time
+     * @param data    The CSV data to index
+     * @return Returns the best rate in MB/s
+     */
+    private static double measure(String name, CSVRecordIndexer indexer, ByteBuffer data) {
+        CSVRecordView record = new CSVRecordView();
+        long fields = 0;
+        long bestNanos = Long.MAX_VALUE;
+
+        for (int pass = 0; pass < warmupPasses + timedPasses; pass++) {
+            long start = System.nanoTime();
+            fields = 0;
+            int position = 0;
+            while (position < data.limit()) {
+                position = indexer.indexRecord(data, position, data.limit(), (byte) ',', true, record);
+                fields += record.fieldCount();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (pass >= warmupPasses)
+                bestNanos = Math.min(bestNanos, elapsed);
+        }
+
+        double rate = data.limit() / (bestNanos / 1e9) / 1e6;
+        System.out.printf("%-7s %10.1f MB/s (%d columns found)%n", name + ":", rate, fields);
+        return rate;
+    }
+
+    /**
+     * Build a buffer of wide CSV rows with a mix of numbers, words and quoted columns
+     *
+     * @param rows    The number of rows
+     * @param columns The number of columns per row
+     * @return Returns a direct buffer holding the data
+     */
+    private static ByteBuffer generateData(int rows, int columns) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (column != 0)
+                    text.append(',');
+                switch (random.nextInt(4)) {
+                    case 0:
+                        text.append(random.nextInt());
+                        break;
+                    case 1:
+                        text.append(random.nextDouble());
+                        break;
+                    case 2:
+                        text.append("word").append(random.nextInt(1000));
+                        break;
+                    default:
+                        text.append("\"quoted, \"\"text\"\"\"");
+                        break;
+                }
+            }
+            text.append('\n');
+        }
+
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer data = ByteBuffer.allocateDirect(bytes.length);
+        data.put(bytes).flip();
+        return data;
+    }
+}
@@ -2,15 +2,54 @@ import java.util.ArrayList;
 
 /**
  * A simple CSV parsing utility
- * (WARNING: Treat this as "AS-IS" since it may not work on all CSV file formats)
+ * (WARNING: Treat this as "AS-IS" since it may not work on all CSV file formats)<br>
+ * A parser instance reads one {@link CSVDialect} and can be shared between threads: the working buffers
+ * are kept per thread and reused between calls, so parsing many lines does no setup work per line.
+ * The static methods parse the default dialect.
  *
  * @author <em>Zach Baldwin</em>
- * @version 2020.05.17
+ * @version 2026.10.18
  */
 public class CSVParser {
 
-    /** The delimiter that we are using for parsing the columns */
-    private static final char parsingDelimiter = ',';
+    /** The parser used by parseLine() */
+    private static final CSVParser defaultParser = new CSVParser(CSVDialect.defaultDialect);
+
+    /** The working buffers of each thread (shared by all parser instances) */
+    private static final ThreadLocal<ParseBuffers> parseBuffers = ThreadLocal.withInitial(ParseBuffers::new);
+
+    /** The flavor of CSV that this parser reads */
+    private final CSVDialect dialect;
+
+    /**
+     * The reusable working buffers for parsing one line
+     */
+    private static final class ParseBuffers {
+
+        /** The columns of the line being parsed */
+        private final ArrayList<String> outputArray = new ArrayList<>();
+
+        /** The text of the column being parsed */
+        private final StringBuilder columnText = new StringBuilder();
+    }
+
+    /**
+     * Create a parser for a dialect
+     *
+     * @param dialect The flavor of CSV to parse
+     */
+    public CSVParser(CSVDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * Get the dialect that this parser reads
+     *
+     * @return Returns the dialect
+     */
+    public CSVDialect dialect() {
+        return dialect;
+    }
 
     /**
      * Parse a line and return an array of the rows using the default delimiter of ','
@@ -19,19 +58,50 @@ public class CSVParser {
      * @return Returns the input line as an array of Strings corresponding to the columns in the input line
      */
     public static String[] parseLine(String line) {
-        return parseLineDelimited(line, parsingDelimiter);
+        return defaultParser.parse(line);
     }
 
     /**
      * Parse a line and return an array of the columns using a custom delimiter<br>
      * <b>Note:</b> this method cannot use "s (quotes) as the delimiter and it does not preform a check
-     *     for this invalid delimiter
+     *     for this invalid delimiter (the whole line is read as one column)
      *
      * @param line The string that makes up the input line (row) to be parsed
      * @param parsingDelimiter The delimiter to be used to separate columns
      * @return Returns an array of strings corresponding to the columns in the input line
      */
     public static String[] parseLineDelimited(String line, char parsingDelimiter) {
+        // The default dialect's rules with another delimiter, without making a dialect for it
+        return parseColumns(line, parsingDelimiter, '\"', CSVDialect.noEscape, false);
+    }
+
+    /**
+     * Parse a line in this parser's dialect and return an array of the columns
+     *
+     * @param line The string that makes up the input line (row) to be parsed
+     * @return Returns an array of strings corresponding to the columns in the input line,
+     *         or null if the line is a comment
+     */
+    public String[] parse(String line) {
+
+        if (dialect.isComment(line))
+            return null;
+        return parseColumns(line, dialect.delimiter(), dialect.quote(), dialect.escape(), dialect.trimWhitespace());
+    }
+
+    /**
+     * Split a line into its columns
+     *
+     * @param line           The string that makes up the input line (row) to be parsed
+     * @param delimiter      The delimiter that separates the columns
+     * @param quote          The character that starts and ends a quoted section
+     * @param escape         The character that makes the next character literal (or CSVDialect.noEscape)
+     * @param trimWhitespace Whether unquoted whitespace around the columns is removed
+     * @return Returns an array of strings corresponding to the columns in the input line
+     */
+    private static String[] parseColumns(String line, char delimiter, char quote, char escape,
+                                         boolean trimWhitespace) {
+        boolean hasEscape = escape != CSVDialect.noEscape;
 
         // Indicates that an odd number of quotes have been found
         // (True = odd, false = even) - Think C-style true-false with a % operation
@@ -40,11 +110,15 @@ public class CSVParser {
         // Indicates that the previous character was a quote
         boolean previousWasQuote = false;
 
-        // Setup the output array
-        ArrayList<String> outputArray = new ArrayList<>(); // Initial capacity of 10
+        // The length of the column text that came from quotes or escapes (and must not be trimmed)
+        int protectedLength = 0;
 
-        // Setup the intermediate string string builder
-        StringBuilder columnText = new StringBuilder();
+        // Reuse this thread's output array and column text
+        ParseBuffers buffers = parseBuffers.get();
+        ArrayList<String> outputArray = buffers.outputArray;
+        StringBuilder columnText = buffers.columnText;
+        outputArray.clear();
+        columnText.setLength(0);
 
         // Go over the input line character by character
         // Each iteration should get the next character, determine if it is the start of the
@@ -56,29 +130,41 @@ public class CSVParser {
             char currentCharacter = line.charAt(i);
 
             // Is this a quote?
-            if (currentCharacter == '\"') {
+            if (currentCharacter == quote) {
 
                 // Swap the quote parity
                 quoteParity = !quoteParity;
 
                 // Two quotes in a row means a single quote
                 if (previousWasQuote) {
-                    columnText.append('\"');
+                    columnText.append(quote);
                     previousWasQuote = false;
                 } else {
                     previousWasQuote = true;
                 }
+                protectedLength = columnText.length();
             } else { // Even number of quotes have been parsed in the current column
 
-                // Check to see if the character is the delimiter
-                if (!quoteParity && currentCharacter == parsingDelimiter) {
+                if (hasEscape && currentCharacter == escape && i + 1 < line.length()) {
+
+                    // The next character is part of the column no matter what it is
+                    columnText.append(line.charAt(++i));
+                    protectedLength = columnText.length();
+                } else if (!quoteParity && currentCharacter == delimiter) {
 
                     // Reset for the next column and add the current column to the output array
-                    outputArray.add(columnText.toString());
-                    columnText = new StringBuilder();
-                } else {
+                    outputArray.add(finishColumn(columnText, protectedLength, trimWhitespace));
+                    columnText.setLength(0);
+                    protectedLength = 0;
+                } else if (quoteParity) {
 
-                    // Not the delimiter, add it to the current column's text
+                    // Quoted text is always kept
+                    columnText.append(currentCharacter);
+                    protectedLength = columnText.length();
+                } else if (!trimWhitespace || columnText.length() != 0 || !Character.isWhitespace(currentCharacter)) {
+
+                    // Not the delimiter, add it to the current column's text (unless it is leading whitespace
+                    // that is being trimmed)
                     columnText.append(currentCharacter);
                 }
 
@@ -87,7 +173,7 @@ public class CSVParser {
             }
         }
 
-        outputArray.add(columnText.toString());
+        outputArray.add(finishColumn(columnText, protectedLength, trimWhitespace));
 //        // In the event that the end of the line ended in a quote or  append the last column
 //        if (previousWasQuote)
 //            outputArray.add(columnText.toString());
@@ -99,4 +185,21 @@ public class CSVParser {
         // Return the array of columns
         return outputArray.toArray(new String[outputArray.size()]); // Can't cast this
     }
+
+    /**
+     * Convert a column's text to a String, trimming any unquoted trailing whitespace if needed
+     *
+     * @param columnText      The text of the column
+     * @param protectedLength The length of the text that came from quotes or escapes
+     * @param trimWhitespace  Whether trailing whitespace should be removed
+     * @return Returns the column's text
+     */
+    private static String finishColumn(StringBuilder columnText, int protectedLength, boolean trimWhitespace) {
+        int length = columnText.length();
+        if (trimWhitespace) {
+            while (length > protectedLength && Character.isWhitespace(columnText.charAt(length - 1)))
+                length--;
+        }
+        return columnText.substring(0, length);
+    }
 }
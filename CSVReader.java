@@ -0,0 +1,305 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A streaming CSV reader that yields one record (row) at a time from a Reader, InputStream or file.
+ * Records are split with the same quoting rules as {@link CSVParser#parseLineDelimited(String, char)},
+ * except that a newline inside of a quoted column is kept as part of that column instead of ending
+ * the record. Only a fixed-size character buffer and one record's worth of column text are held in
+ * memory, so arbitrarily large inputs can be read.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class CSVReader implements Iterator<String[]>, Closeable {
+
+    /** The default delimiter that we are using for parsing the columns */
+    private static final char defaultDelimiter = ',';
+
+    /** The number of characters read from the input at a time */
+    private static final int readBufferSize = 64 * 1024;
+
+    /** The source of the characters to be parsed */
+    private final Reader input;
+
+    /** The delimiter that we are using for parsing the columns */
+    private final char parsingDelimiter;
+
+    /** The characters read from the input that are waiting to be parsed */
+    private final char[] readBuffer = new char[readBufferSize];
+
+    /** The index of the next character to be parsed in the read buffer */
+    private int readPosition = 0;
+
+    /** The number of valid characters in the read buffer */
+    private int readLimit = 0;
+
+    /** Set once the input has no more characters */
+    private boolean endOfInput = false;
+
+    /** The columns of the record currently being parsed (reused between records) */
+    private final ArrayList<String> outputArray = new ArrayList<>();
+
+    /** The text of the column currently being parsed (reused between columns) */
+    private final StringBuilder columnText = new StringBuilder();
+
+    /** The next record to be returned by next(), or null if it has not been read yet */
+    private String[] nextRecord = null;
+
+    /**
+     * Create a reader that parses the characters from a Reader using the default delimiter of ','
+     *
+     * @param input The source of the CSV text
+     */
+    public CSVReader(Reader input) {
+        this(input, defaultDelimiter);
+    }
+
+    /**
+     * Create a reader that parses the characters from a Reader using a custom delimiter<br>
+     * <b>Note:</b> this cannot use "s (quotes) as the delimiter (see {@link CSVParser#parseLineDelimited})
+     *
+     * @param input The source of the CSV text
+     * @param parsingDelimiter The delimiter to be used to separate columns
+     */
+    public CSVReader(Reader input, char parsingDelimiter) {
+        this.input = input;
+        this.parsingDelimiter = parsingDelimiter;
+    }
+
+    /**
+     * Create a reader that parses UTF-8 text from an InputStream using the default delimiter of ','
+     *
+     * @param input The stream of CSV bytes
+     */
+    public CSVReader(InputStream input) {
+        this(input, StandardCharsets.UTF_8, defaultDelimiter);
+    }
+
+    /**
+     * Create a reader that parses text from an InputStream using a custom character set and delimiter
+     *
+     * @param input The stream of CSV bytes
+     * @param charset The character set that the stream is encoded in
+     * @param parsingDelimiter The delimiter to be used to separate columns
+     */
+    public CSVReader(InputStream input, Charset charset, char parsingDelimiter) {
+        this(new InputStreamReader(input, charset), parsingDelimiter);
+    }
+
+    /**
+     * Open a UTF-8 CSV file and parse it using the default delimiter of ','
+     *
+     * @param file The file to be read
+     * @throws IOException If the file could not be opened
+     */
+    public CSVReader(Path file) throws IOException {
+        this(file, StandardCharsets.UTF_8, defaultDelimiter);
+    }
+
+    /**
+     * Open a CSV file and parse it using a custom character set and delimiter
+     *
+     * @param file The file to be read
+     * @param charset The character set that the file is encoded in
+     * @param parsingDelimiter The delimiter to be used to separate columns
+     * @throws IOException If the file could not be opened
+     */
+    public CSVReader(Path file, Charset charset, char parsingDelimiter) throws IOException {
+        this(new InputStreamReader(Files.newInputStream(file), charset), parsingDelimiter);
+    }
+
+    /**
+     * Check if there is another record to be read
+     *
+     * @return Returns true if next() will return another record
+     * @throws UncheckedIOException If the underlying input could not be read
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextRecord == null) {
+            try {
+                nextRecord = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return nextRecord != null;
+    }
+
+    /**
+     * Get the next record from the input
+     *
+     * @return Returns an array of strings corresponding to the columns in the next record
+     * @throws NoSuchElementException If there are no more records
+     * @throws UncheckedIOException If the underlying input could not be read
+     */
+    @Override
+    public String[] next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        String[] record = nextRecord;
+        nextRecord = null;
+        return record;
+    }
+
+    /**
+     * Get the remaining records as a sequential Stream. Closing the stream closes this reader.
+     *
+     * @return Returns a lazily-populated Stream of the remaining records
+     */
+    public Stream<String[]> stream() {
+        Spliterator<String[]> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Close the underlying input
+     *
+     * @throws IOException If the input could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Parse the next record from the input. The quote handling is the same as in
+     * {@link CSVParser#parseLineDelimited(String, char)}, with an unquoted '\n' (or "\r\n")
+     * ending the record.
+     *
+     * @return Returns the columns of the next record or null if the end of the input was reached
+     * @throws IOException If the input could not be read
+     */
+    private String[] readRecord() throws IOException {
+
+        // Indicates that an odd number of quotes have been found
+        // (True = odd, false = even)
+        boolean quoteParity = false;
+
+        // Indicates that the previous character was a quote
+        boolean previousWasQuote = false;
+
+        // Indicates that the previous character was an unquoted '\r' (and is the last character in columnText)
+        boolean previousWasCarriageReturn = false;
+
+        // Indicates that at least one character belongs to this record
+        boolean recordStarted = false;
+
+        outputArray.clear();
+        columnText.setLength(0);
+
+        while (true) {
+
+            // Refill the buffer if we have used all of it
+            if (readPosition == readLimit && !fillBuffer()) {
+
+                // Nothing left, there is no record if we did not get any characters for it
+                if (!recordStarted)
+                    return null;
+
+                // Drop a trailing "\r" (the last line ended with a bare carriage return)
+                if (previousWasCarriageReturn)
+                    columnText.setLength(columnText.length() - 1);
+                return finishRecord();
+            }
+
+            char currentCharacter = readBuffer[readPosition++];
+            recordStarted = true;
+
+            if (currentCharacter == '\"') {
+
+                // Swap the quote parity
+                quoteParity = !quoteParity;
+
+                // Two quotes in a row means a single quote
+                if (previousWasQuote) {
+                    columnText.append('\"');
+                    previousWasQuote = false;
+                } else {
+                    previousWasQuote = true;
+                }
+                previousWasCarriageReturn = false;
+            } else {
+
+                if (!quoteParity && currentCharacter == '\n') {
+
+                    // End of the record, a "\r\n" line ending should not be part of the last column
+                    if (previousWasCarriageReturn)
+                        columnText.setLength(columnText.length() - 1);
+                    return finishRecord();
+                } else if (!quoteParity && currentCharacter == parsingDelimiter) {
+
+                    // Reset for the next column and add the current column to the output array
+                    outputArray.add(columnText.toString());
+                    columnText.setLength(0);
+                } else {
+
+                    // Not the delimiter (or a quoted delimiter/newline), add it to the current column's text
+                    columnText.append(currentCharacter);
+                }
+
+                previousWasCarriageReturn = !quoteParity && currentCharacter == '\r';
+                previousWasQuote = false;
+            }
+        }
+    }
+
+    /**
+     * Add the last column to the record being built and convert the record to an array
+     *
+     * @return Returns the columns of the record
+     */
+    private String[] finishRecord() {
+        outputArray.add(columnText.toString());
+        return outputArray.toArray(new String[outputArray.size()]);
+    }
+
+    /**
+     * Read the next block of characters from the input
+     *
+     * @return Returns true if at least one character was read, false at the end of the input
+     * @throws IOException If the input could not be read
+     */
+    private boolean fillBuffer() throws IOException {
+        if (endOfInput)
+            return false;
+
+        int charactersRead;
+        do {
+            charactersRead = input.read(readBuffer, 0, readBuffer.length);
+        } while (charactersRead == 0);
+
+        if (charactersRead < 0) {
+            endOfInput = true;
+            return false;
+        }
+
+        readPosition = 0;
+        readLimit = charactersRead;
+        return true;
+    }
+}
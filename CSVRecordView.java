@@ -0,0 +1,527 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A reusable view of one CSV record (row) as (start, length) slices of a byte buffer.
+ * The view does not copy the bytes or build any Strings unless asked to, so the numbers in a column
+ * can be parsed (or the bytes compared) right where they sit in the buffer.<br>
+ * Columns that were wrapped in a single pair of quotes are reported without those quotes. Any other
+ * column that contains quotes is flagged as escaped: its slice is the raw text and the accessor
+ * methods apply the same quote rules as {@link CSVParser#parseLineDelimited(String, char)} to it.<br>
+ * <b>Note:</b> a view is only valid until the scanner that filled it moves on to the next record.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class CSVRecordView {
+
+    /** The largest power of ten that can be exactly represented as a double */
+    private static final int maxExactPowerOfTen = 22;
+
+    /** The largest significand that can be exactly represented as a double */
+    private static final long maxExactSignificand = 1L << 53;
+
+    /** Powers of ten from 10^0 to 10^22 (all of which are exact doubles) */
+    private static final double[] powersOfTen = new double[maxExactPowerOfTen + 1];
+
+    static {
+        powersOfTen[0] = 1.0;
+        for (int i = 1; i < powersOfTen.length; i++)
+            powersOfTen[i] = powersOfTen[i - 1] * 10.0;
+    }
+
+    /** The buffer that the columns are slices of */
+    private ByteBuffer buffer;
+
+    /** The index in the buffer of the first byte of each column */
+    private int[] fieldStarts = new int[16];
+
+    /** The number of bytes in each column */
+    private int[] fieldLengths = new int[16];
+
+    /** Whether each column still contains quotes that have to be decoded */
+    private boolean[] fieldEscaped = new boolean[16];
+
+    /** The number of columns in the record */
+    private int fieldCount = 0;
+
+    /** Holds the decoded bytes of an escaped column (reused between columns) */
+    private byte[] scratch = new byte[64];
+
+    /** A buffer wrapping the scratch array so that it can be parsed like any other column */
+    private ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+
+    /**
+     * Clear the columns and point the view at a new buffer
+     *
+     * @param buffer The buffer that the next columns will be slices of
+     */
+    void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.fieldCount = 0;
+    }
+
+    /**
+     * Add a column to the record
+     *
+     * @param start      The index of the first byte of the column (including any quotes)
+     * @param end        The index after the last byte of the column (including any quotes)
+     * @param quoteCount The number of quote characters between start and end
+     */
+    void addField(int start, int end, int quoteCount) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldLengths = Arrays.copyOf(fieldLengths, fieldCount * 2);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, fieldCount * 2);
+        }
+
+        boolean escaped = quoteCount != 0;
+
+        // A column like "text" can be used as-is once the outer quotes are dropped.
+        // ("" on its own is a doubled quote, so it must be at least three bytes long)
+        if (quoteCount == 2 && end - start > 2 && buffer.get(start) == '\"' && buffer.get(end - 1) == '\"') {
+            start++;
+            end--;
+            escaped = false;
+        }
+
+        fieldStarts[fieldCount] = start;
+        fieldLengths[fieldCount] = end - start;
+        fieldEscaped[fieldCount] = escaped;
+        fieldCount++;
+    }
+
+    /**
+     * Get the buffer that the column slices point into
+     *
+     * @return Returns the backing buffer of this record
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Get the number of columns in the record
+     *
+     * @return Returns the number of columns
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Get the index in the buffer of the first byte of a column
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the start of the column's slice
+     */
+    public int start(int field) {
+        checkField(field);
+        return fieldStarts[field];
+    }
+
+    /**
+     * Get the length in bytes of a column's slice
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the length of the column's slice
+     */
+    public int length(int field) {
+        checkField(field);
+        return fieldLengths[field];
+    }
+
+    /**
+     * Check if a column's slice contains quotes that still have to be decoded.
+     * The accessor methods of this class take care of this, it only matters when reading the buffer directly.
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns true if the raw slice is not the column's text
+     */
+    public boolean isEscaped(int field) {
+        checkField(field);
+        return fieldEscaped[field];
+    }
+
+    /**
+     * Compare a column's text against some bytes without copying it
+     *
+     * @param field The column number (starting at 0)
+     * @param bytes The bytes to compare against
+     * @return Returns true if the column's text is exactly the provided bytes
+     */
+    public boolean contentEquals(int field, byte[] bytes) {
+        ByteBuffer source = fieldBuffer(field);
+        int start = fieldStart(field);
+        int length = fieldLength(field);
+
+        if (length != bytes.length)
+            return false;
+
+        for (int i = 0; i < length; i++) {
+            if (source.get(start + i) != bytes[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parse a column as a signed decimal int without building a String
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the value of the column
+     * @throws NumberFormatException If the column is not a valid int (same rules as Integer.parseInt)
+     */
+    public int parseInt(int field) {
+        long value = parseDecimal(field, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return (int) value;
+    }
+
+    /**
+     * Parse a column as a signed decimal long without building a String
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the value of the column
+     * @throws NumberFormatException If the column is not a valid long (same rules as Long.parseLong)
+     */
+    public long parseLong(int field) {
+        return parseDecimal(field, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Parse a column as a double. Plain decimal numbers with up to 15 significant digits and a small exponent
+     * (e.g. "-12.5", "3e4") are converted straight from the bytes. Anything else is handed to Double.parseDouble.
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the value of the column
+     * @throws NumberFormatException If the column is not a valid double (same rules as Double.parseDouble)
+     */
+    public double parseDouble(int field) {
+        ByteBuffer source = fieldBuffer(field);
+        int start = fieldStart(field);
+        int end = start + fieldLength(field);
+        int i = start;
+
+        boolean negative = false;
+        if (i < end && (source.get(i) == '-' || source.get(i) == '+')) {
+            negative = source.get(i) == '-';
+            i++;
+        }
+
+        // Collect the digits into one significand and remember where the decimal point was
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        boolean sawPoint = false;
+        for (; i < end; i++) {
+            byte b = source.get(i);
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+
+                // Leading zeros do not count towards the precision limit
+                if (significand != 0 || b != '0')
+                    digits++;
+                if (digits > 15)
+                    return slowParseDouble(source, start, end);
+
+                significand = significand * 10 + (b - '0');
+                if (sawPoint)
+                    exponent--;
+            } else if (b == '.' && !sawPoint) {
+                sawPoint = true;
+            } else {
+                break;
+            }
+        }
+
+        // Optional exponent
+        if (i < end && sawDigit && (source.get(i) == 'e' || source.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (source.get(i) == '-' || source.get(i) == '+')) {
+                negativeExponent = source.get(i) == '-';
+                i++;
+            }
+            int exponentDigits = 0;
+            int writtenExponent = 0;
+            for (; i < end && source.get(i) >= '0' && source.get(i) <= '9'; i++) {
+                if (++exponentDigits > 4)
+                    return slowParseDouble(source, start, end);
+                writtenExponent = writtenExponent * 10 + (source.get(i) - '0');
+            }
+            if (exponentDigits == 0)
+                return slowParseDouble(source, start, end);
+            exponent += negativeExponent ? -writtenExponent : writtenExponent;
+        }
+
+        // Anything unusual (suffixes, whitespace, NaN, hex...) or out of the exact range goes the slow way
+        if (i != end || !sawDigit || significand >= maxExactSignificand
+                || exponent < -maxExactPowerOfTen || exponent > maxExactPowerOfTen)
+            return slowParseDouble(source, start, end);
+
+        // Both operands are exact so the single rounding of the multiply/divide gives the correct result
+        double value = significand;
+        if (exponent < 0)
+            value /= powersOfTen[-exponent];
+        else
+            value *= powersOfTen[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Get a column's text as a (UTF-8 decoded) String
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the column's text, the same as {@link CSVParser#parseLineDelimited} would return
+     */
+    public String getString(int field) {
+        ByteBuffer source = fieldBuffer(field);
+        int start = fieldStart(field);
+        int length = fieldLength(field);
+
+        if (source.hasArray())
+            return new String(source.array(), source.arrayOffset() + start, length, StandardCharsets.UTF_8);
+
+        byte[] bytes = new byte[length];
+        source.get(start, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode a column's (UTF-8) text into a char array without building a String.
+     * The column never needs more chars than {@link #length(int)}, so that much room is always enough.
+     * Malformed UTF-8 sequences (including overlong forms and encoded surrogates) are replaced with '\uFFFD'
+     * the same way as by {@link #getString(int)}.
+     *
+     * @param field       The column number (starting at 0)
+     * @param destination The array to write the chars to
+     * @param offset      The index in the array of the first char to write
+     * @return Returns the number of chars written
+     */
+    public int getChars(int field, char[] destination, int offset) {
+        ByteBuffer source = fieldBuffer(field);
+        int i = fieldStart(field);
+        int end = i + fieldLength(field);
+        int out = offset;
+
+        while (i < end) {
+            int b = source.get(i++);
+
+            // Plain ASCII
+            if (b >= 0) {
+                destination[out++] = (char) b;
+                continue;
+            }
+
+            // Work out the length of the sequence and the range of its second byte from the lead byte (the
+            // ranges rule out overlong forms and code points past U+10FFFF)
+            int lead = b & 0xFF;
+            int codePoint;
+            int continuationBytes;
+            int secondMin = 0x80;
+            int secondMax = 0xBF;
+            if (lead >= 0xC2 && lead <= 0xDF) {
+                codePoint = lead & 0x1F;
+                continuationBytes = 1;
+            } else if (lead >= 0xE0 && lead <= 0xEF) {
+                codePoint = lead & 0x0F;
+                continuationBytes = 2;
+                if (lead == 0xE0)
+                    secondMin = 0xA0;
+            } else if (lead >= 0xF0 && lead <= 0xF4) {
+                codePoint = lead & 0x07;
+                continuationBytes = 3;
+                if (lead == 0xF0)
+                    secondMin = 0x90;
+                else if (lead == 0xF4)
+                    secondMax = 0x8F;
+            } else {
+                destination[out++] = '\uFFFD';
+                continue;
+            }
+
+            // A byte out of range ends the sequence with one '\uFFFD' for the bytes before it, and is read
+            // again as the start of the next one
+            boolean malformed = false;
+            for (int j = 0; j < continuationBytes; j++) {
+                int next = i == end ? -1 : source.get(i) & 0xFF;
+                if (next < (j == 0 ? secondMin : 0x80) || next > (j == 0 ? secondMax : 0xBF)) {
+                    malformed = true;
+                    break;
+                }
+                codePoint = (codePoint << 6) | (next & 0x3F);
+                i++;
+            }
+
+            // An encoded surrogate is replaced as a whole, like new String(bytes, UTF_8) does
+            if (malformed || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                destination[out++] = '\uFFFD';
+            } else if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                destination[out++] = Character.highSurrogate(codePoint);
+                destination[out++] = Character.lowSurrogate(codePoint);
+            } else {
+                destination[out++] = (char) codePoint;
+            }
+        }
+        return out - offset;
+    }
+
+    /**
+     * Convert the whole record to Strings
+     *
+     * @return Returns an array of strings corresponding to the columns in the record
+     */
+    public String[] toArray() {
+        String[] columns = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++)
+            columns[i] = getString(i);
+        return columns;
+    }
+
+    /**
+     * Parse a signed decimal integer from a column and check it against a range
+     *
+     * @param field    The column number (starting at 0)
+     * @param minValue The smallest value allowed
+     * @param maxValue The largest value allowed
+     * @return Returns the value of the column
+     * @throws NumberFormatException If the column is not a valid integer in the range
+     */
+    private long parseDecimal(int field, long minValue, long maxValue) {
+        ByteBuffer source = fieldBuffer(field);
+        int start = fieldStart(field);
+        int end = start + fieldLength(field);
+        int i = start;
+
+        if (i == end)
+            throw numberFormatError(source, start, end);
+
+        boolean negative = false;
+        if (source.get(i) == '-' || source.get(i) == '+') {
+            negative = source.get(i) == '-';
+            if (++i == end)
+                throw numberFormatError(source, start, end);
+        }
+
+        // Accumulate negatively (like Integer.parseInt) so that the minimum value fits
+        long limit = negative ? minValue : -maxValue;
+        long multiplyMinimum = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = source.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyMinimum)
+                throw numberFormatError(source, start, end);
+            result *= 10;
+            if (result < limit + digit)
+                throw numberFormatError(source, start, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parse a double that the fast path in parseDouble() cannot handle
+     *
+     * @param source The buffer holding the column
+     * @param start  The index of the column's first byte
+     * @param end    The index after the column's last byte
+     * @return Returns the value of the column
+     */
+    private static double slowParseDouble(ByteBuffer source, int start, int end) {
+        return Double.parseDouble(asciiString(source, start, end));
+    }
+
+    /**
+     * Build the exception for a column that could not be parsed as a number
+     *
+     * @param source The buffer holding the column
+     * @param start  The index of the column's first byte
+     * @param end    The index after the column's last byte
+     * @return Returns a NumberFormatException with the same message that the JDK parsers use
+     */
+    private static NumberFormatException numberFormatError(ByteBuffer source, int start, int end) {
+        return new NumberFormatException("For input string: \"" + asciiString(source, start, end) + "\"");
+    }
+
+    /**
+     * Copy part of a buffer into a String (only used on the slow paths)
+     *
+     * @param source The buffer to copy from
+     * @param start  The index of the first byte
+     * @param end    The index after the last byte
+     * @return Returns the bytes as a String
+     */
+    private static String asciiString(ByteBuffer source, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        source.get(start, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the buffer that holds a column's text, decoding the column into the scratch buffer if it is escaped
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the buffer to read the column's text from
+     */
+    private ByteBuffer fieldBuffer(int field) {
+        checkField(field);
+        if (!fieldEscaped[field])
+            return buffer;
+
+        // Two quotes in a row means a single quote, any other quote is dropped
+        int length = fieldLengths[field];
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            scratchBuffer = ByteBuffer.wrap(scratch);
+        }
+
+        int decodedLength = 0;
+        boolean previousWasQuote = false;
+        for (int i = fieldStarts[field], end = i + length; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '\"') {
+                if (previousWasQuote)
+                    scratch[decodedLength++] = '\"';
+                previousWasQuote = !previousWasQuote;
+            } else {
+                scratch[decodedLength++] = b;
+                previousWasQuote = false;
+            }
+        }
+        scratchBuffer.clear().limit(decodedLength);
+        return scratchBuffer;
+    }
+
+    /**
+     * Get the start of a column's text in the buffer returned by fieldBuffer()
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the start index of the column's text
+     */
+    private int fieldStart(int field) {
+        return fieldEscaped[field] ? 0 : fieldStarts[field];
+    }
+
+    /**
+     * Get the length of a column's text in the buffer returned by fieldBuffer()
+     *
+     * @param field The column number (starting at 0)
+     * @return Returns the length of the column's text
+     */
+    private int fieldLength(int field) {
+        return fieldEscaped[field] ? scratchBuffer.limit() : fieldLengths[field];
+    }
+
+    /**
+     * Make sure that a column number is part of the record
+     *
+     * @param field The column number to check
+     * @throws IndexOutOfBoundsException If the column is not in the record
+     */
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount)
+            throw new IndexOutOfBoundsException("Column " + field + " is not in a record of " + fieldCount + " columns");
+    }
+}
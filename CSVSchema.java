@@ -0,0 +1,67 @@
+import java.util.Arrays;
+
+/**
+ * Describes the type of every column in a CSV file so that the columns can be decoded straight into
+ * primitives (see {@link CSVTypedDecoder}) instead of going through a String first.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class CSVSchema {
+
+    /** The ways that a column can be decoded */
+    public enum ColumnType {
+        INT, LONG, DOUBLE, STRING, SKIP
+    }
+
+    /** The type of each column (in file order) */
+    private final ColumnType[] columnTypes;
+
+    /**
+     * Create a schema from the types of the columns
+     *
+     * @param columnTypes The type of each column in file order (columns after the last one are ignored)
+     */
+    public CSVSchema(ColumnType... columnTypes) {
+        this.columnTypes = columnTypes.clone();
+    }
+
+    /**
+     * Create a schema from a delimited list of type names, e.g. "int,double,skip,string"
+     *
+     * @param description The type names (int, long, double, string or skip) separated by commas
+     * @return Returns the schema for those columns
+     * @throws IllegalArgumentException If one of the names is not a column type
+     */
+    public static CSVSchema parse(String description) {
+        String[] names = CSVParser.parseLine(description);
+        ColumnType[] columnTypes = new ColumnType[names.length];
+        for (int i = 0; i < names.length; i++)
+            columnTypes[i] = ColumnType.valueOf(names[i].trim().toUpperCase());
+        return new CSVSchema(columnTypes);
+    }
+
+    /**
+     * Get the number of columns described by the schema
+     *
+     * @return Returns the number of columns
+     */
+    public int columnCount() {
+        return columnTypes.length;
+    }
+
+    /**
+     * Get the type of a column
+     *
+     * @param column The column number (starting at 0)
+     * @return Returns the way that the column is decoded
+     */
+    public ColumnType columnType(int column) {
+        return columnTypes[column];
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(columnTypes);
+    }
+}
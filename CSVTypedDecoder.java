@@ -0,0 +1,128 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Decodes CSV rows straight from the bytes of a {@link MappedCSVScanner} into primitives, following a
+ * {@link CSVSchema}. INT, LONG and DOUBLE columns are parsed in place and SKIP columns are never looked at,
+ * so no String is created for them. Only STRING columns are handed over as a slice of the record.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class CSVTypedDecoder {
+
+    /** The default delimiter that we are using for parsing the columns */
+    private static final char defaultDelimiter = ',';
+
+    /** The types of the columns to decode */
+    private final CSVSchema schema;
+
+    /** The last column that is not skipped (the rows must have at least this many columns) */
+    private final int requiredColumns;
+
+    /**
+     * Create a decoder for a schema
+     *
+     * @param schema The types of the columns to decode
+     */
+    public CSVTypedDecoder(CSVSchema schema) {
+        this.schema = schema;
+
+        int lastUsedColumn = -1;
+        for (int i = 0; i < schema.columnCount(); i++) {
+            if (schema.columnType(i) != CSVSchema.ColumnType.SKIP)
+                lastUsedColumn = i;
+        }
+        this.requiredColumns = lastUsedColumn + 1;
+    }
+
+    /**
+     * Decode every row of a file into primitive column arrays using the default delimiter of ','
+     *
+     * @param file The CSV file to decode
+     * @return Returns the decoded columns
+     * @throws IOException If the file could not be read
+     */
+    public CSVColumns readColumns(Path file) throws IOException {
+        return readColumns(file, defaultDelimiter);
+    }
+
+    /**
+     * Decode every row of a file into primitive column arrays using a custom delimiter
+     *
+     * @param file The CSV file to decode
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     * @return Returns the decoded columns
+     * @throws IOException If the file could not be read
+     */
+    public CSVColumns readColumns(Path file, char parsingDelimiter) throws IOException {
+        CSVColumns columns = new CSVColumns(schema);
+        decode(file, parsingDelimiter, columns);
+        return columns;
+    }
+
+    /**
+     * Decode every row of a file and pass the values to a handler
+     *
+     * @param file The CSV file to decode
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     * @param handler The handler to receive the values
+     * @return Returns the number of rows decoded
+     * @throws IOException If the file could not be read
+     */
+    public long decode(Path file, char parsingDelimiter, CSVColumnHandler handler) throws IOException {
+        try (MappedCSVScanner scanner = new MappedCSVScanner(file, parsingDelimiter)) {
+            return decode(scanner, handler);
+        }
+    }
+
+    /**
+     * Decode the remaining rows of a scanner and pass the values to a handler
+     *
+     * @param scanner The scanner to read the rows from
+     * @param handler The handler to receive the values
+     * @return Returns the number of rows decoded
+     * @throws IOException If the file could not be read
+     */
+    public long decode(MappedCSVScanner scanner, CSVColumnHandler handler) throws IOException {
+        long row = 0;
+        while (scanner.next())
+            decodeRecord(scanner.record(), row++, handler);
+        return row;
+    }
+
+    /**
+     * Decode one row and pass the values to a handler
+     *
+     * @param record  The view of the row
+     * @param row     The row number to pass to the handler
+     * @param handler The handler to receive the values
+     * @throws IllegalArgumentException If the row does not have enough columns for the schema
+     * @throws NumberFormatException If a numeric column is not a valid number
+     */
+    public void decodeRecord(CSVRecordView record, long row, CSVColumnHandler handler) {
+        if (record.fieldCount() < requiredColumns)
+            throw new IllegalArgumentException("Row " + row + " has " + record.fieldCount()
+                    + " columns but the schema needs " + requiredColumns);
+
+        for (int column = 0; column < requiredColumns; column++) {
+            switch (schema.columnType(column)) {
+                case INT:
+                    handler.intValue(column, record.parseInt(column));
+                    break;
+                case LONG:
+                    handler.longValue(column, record.parseLong(column));
+                    break;
+                case DOUBLE:
+                    handler.doubleValue(column, record.parseDouble(column));
+                    break;
+                case STRING:
+                    handler.stringValue(column, record);
+                    break;
+                case SKIP:
+                    break;
+            }
+        }
+        handler.endRow(row);
+    }
+}
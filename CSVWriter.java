@@ -0,0 +1,443 @@
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes CSV records that {@link CSVParser} (and the other readers in this project) read back exactly.
+ * Columns are encoded as UTF-8 straight into one large reusable byte buffer, which is written to an NIO
+ * channel in big blocks. Numbers are formatted into the buffer digit by digit (doubles with DoubleFormatter),
+ * so writing ints, longs, doubles (on JDK 19 and later) and CharSequences does not allocate anything.<br>
+ * A column is wrapped in quotes when it contains the delimiter, a quote, a newline or the escape character
+ * (or whitespace at either end if the dialect trims it), with quotes inside of the column written as two
+ * quotes. A column made up of only quotes is written as doubled quotes without the wrapping quotes, since
+ * the parser pairs up quotes from the left. Numbers are quoted by the same rules, which only matters for
+ * dialects whose delimiter, quote or escape is a character that numbers use (like '-', '.' or a digit).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class CSVWriter implements Closeable, Flushable {
+
+    /** The ways that a text column can be written */
+    private enum Quoting {
+        PLAIN, DOUBLE_QUOTES, WRAP
+    }
+
+    /** The default size of the output buffer */
+    private static final int defaultBufferSize = 1 << 20;
+
+    /** The most bytes that one char (or surrogate pair) can take in UTF-8 */
+    private static final int maxBytesPerChar = 4;
+
+    /** The digits of Long.MIN_VALUE (which cannot be negated) */
+    private static final byte[] minLongDigits = Long.toString(Long.MIN_VALUE).getBytes();
+
+    /** The channel that the records are written to */
+    private final WritableByteChannel channel;
+
+    /** The flavor of CSV being written */
+    private final CSVDialect dialect;
+
+    /** The output buffer */
+    private final byte[] bytes;
+
+    /** A buffer wrapping the output array so that it can be written to the channel */
+    private final ByteBuffer buffer;
+
+    /** The number of bytes in the output buffer waiting to be written */
+    private int position = 0;
+
+    /** Set until the first column of a record has been written */
+    private boolean startOfRecord = true;
+
+    /** Set while writing the first column of a record */
+    private boolean startOfRecordField = false;
+
+    /** Scratch space for formatting numbers (digits are written from the end) */
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Create a writer for a channel using the default dialect
+     *
+     * @param channel The channel to write the records to
+     */
+    public CSVWriter(WritableByteChannel channel) {
+        this(channel, CSVDialect.defaultDialect, defaultBufferSize);
+    }
+
+    /**
+     * Create a writer for a channel using a custom dialect and buffer size
+     *
+     * @param channel The channel to write the records to
+     * @param dialect The flavor of CSV to write (the delimiter, quote, escape, trimming and comment prefix are used)
+     * @param bufferSize The number of bytes to collect before writing to the channel
+     */
+    public CSVWriter(WritableByteChannel channel, CSVDialect dialect, int bufferSize) {
+        if (bufferSize < Math.max(minLongDigits.length, DoubleFormatter.maxLength))
+            throw new IllegalArgumentException("The buffer is too small: " + bufferSize);
+
+        this.channel = channel;
+        this.dialect = dialect;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Create a writer for an output stream using the default dialect
+     *
+     * @param output The stream to write the records to
+     */
+    public CSVWriter(OutputStream output) {
+        this(Channels.newChannel(output));
+    }
+
+    /**
+     * Create (or replace) a file and write records to it using the default dialect
+     *
+     * @param file The file to write
+     * @throws IOException If the file could not be opened
+     */
+    public CSVWriter(Path file) throws IOException {
+        this(file, CSVDialect.defaultDialect);
+    }
+
+    /**
+     * Create (or replace) a file and write records to it using a custom dialect
+     *
+     * @param file The file to write
+     * @param dialect The flavor of CSV to write
+     * @throws IOException If the file could not be opened
+     */
+    public CSVWriter(Path file, CSVDialect dialect) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), dialect, defaultBufferSize);
+    }
+
+    /**
+     * Write a text column (quoting it if needed)
+     *
+     * @param text The text of the column (null is written as an empty column)
+     * @throws IOException If the output could not be written
+     */
+    public void writeField(CharSequence text) throws IOException {
+        startField();
+        if (text != null)
+            writeText(text);
+    }
+
+    /**
+     * Write the text of a column (quoting it if needed)
+     *
+     * @param text The text of the column
+     * @throws IOException If the output could not be written
+     */
+    private void writeText(CharSequence text) throws IOException {
+        int length = text.length();
+        char quote = dialect.quote();
+        switch (quoting(text)) {
+            case PLAIN:
+                writeChars(text, 0, length);
+                break;
+            case DOUBLE_QUOTES:
+                for (int i = 0; i < length; i++) {
+                    writeChar(quote);
+                    writeChar(quote);
+                }
+                break;
+            case WRAP:
+                writeChar(quote);
+                for (int i = 0; i < length; i++) {
+                    char currentCharacter = text.charAt(i);
+                    if (currentCharacter == quote || (dialect.hasEscape() && currentCharacter == dialect.escape()))
+                        writeChar(currentCharacter);
+
+                    // Keep surrogate pairs together
+                    if (Character.isHighSurrogate(currentCharacter) && i + 1 < length) {
+                        writeChars(text, i, i + 2);
+                        i++;
+                    } else {
+                        writeChar(currentCharacter);
+                    }
+                }
+                writeChar(quote);
+                break;
+        }
+    }
+
+    /**
+     * Write an int column
+     *
+     * @param value The value of the column
+     * @throws IOException If the output could not be written
+     */
+    public void writeField(int value) throws IOException {
+        writeField((long) value);
+    }
+
+    /**
+     * Write a long column
+     *
+     * @param value The value of the column
+     * @throws IOException If the output could not be written
+     */
+    public void writeField(long value) throws IOException {
+        startField();
+        ensureRoom(minLongDigits.length);
+        int start = position;
+
+        if (value == Long.MIN_VALUE) {
+            System.arraycopy(minLongDigits, 0, bytes, position, minLongDigits.length);
+            position += minLongDigits.length;
+            quoteNumberIfNeeded(start);
+            return;
+        }
+
+        if (value < 0) {
+            bytes[position++] = '-';
+            value = -value;
+        }
+
+        // Fill the digits from the right, then copy them over
+        int digitStart = digits.length;
+        do {
+            digits[--digitStart] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+
+        int digitCount = digits.length - digitStart;
+        System.arraycopy(digits, digitStart, bytes, position, digitCount);
+        position += digitCount;
+        quoteNumberIfNeeded(start);
+    }
+
+    /**
+     * Write a double column in the same format as Double.toString (so that Double.parseDouble reads back
+     * the same value), formatted straight into the buffer with DoubleFormatter
+     *
+     * @param value The value of the column
+     * @throws IOException If the output could not be written
+     */
+    public void writeField(double value) throws IOException {
+        startField();
+        ensureRoom(DoubleFormatter.maxLength);
+        int start = position;
+        position = DoubleFormatter.format(value, bytes, position);
+        quoteNumberIfNeeded(start);
+    }
+
+    /**
+     * Quote a number that was just formatted into the buffer if one of its characters is special in the
+     * dialect (numbers are ASCII, so the bytes are the characters). This is rare, so the number is simply
+     * taken back out and written again as text.
+     *
+     * @param start The index in the buffer where the number starts
+     * @throws IOException If the output could not be written
+     */
+    private void quoteNumberIfNeeded(int start) throws IOException {
+        String commentPrefix = dialect.commentPrefix();
+        boolean special = startOfRecordField && commentPrefix != null && !commentPrefix.isEmpty()
+                && bytes[start] == commentPrefix.charAt(0);
+        for (int i = start; i < position && !special; i++) {
+            char currentCharacter = (char) bytes[i];
+            special = currentCharacter == dialect.delimiter() || currentCharacter == dialect.quote()
+                    || (dialect.hasEscape() && currentCharacter == dialect.escape());
+        }
+        if (!special)
+            return;
+
+        String text = new String(bytes, start, position - start, StandardCharsets.ISO_8859_1);
+        position = start;
+        writeText(text);
+    }
+
+    /**
+     * Write a whole record
+     *
+     * @param columns The text of the columns
+     * @throws IOException If the output could not be written
+     */
+    public void writeRecord(CharSequence... columns) throws IOException {
+        for (CharSequence column : columns)
+            writeField(column);
+        endRecord();
+    }
+
+    /**
+     * End the current record (a record with no columns is written as an empty line)
+     *
+     * @throws IOException If the output could not be written
+     */
+    public void endRecord() throws IOException {
+        ensureRoom(1);
+        bytes[position++] = '\n';
+        startOfRecord = true;
+    }
+
+    /**
+     * Write everything in the buffer to the channel
+     *
+     * @throws IOException If the output could not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.clear().limit(position);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        position = 0;
+    }
+
+    /**
+     * Write everything in the buffer and close the channel
+     *
+     * @throws IOException If the output could not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Work out how a text column has to be written for the parser to read it back as-is
+     *
+     * @param text The text of the column
+     * @return Returns the way to write the column
+     */
+    private Quoting quoting(CharSequence text) {
+        int length = text.length();
+        if (length == 0)
+            return Quoting.PLAIN;
+
+        char quote = dialect.quote();
+        boolean hasQuote = false;
+        boolean onlyQuotes = true;
+        boolean needsWrap = false;
+        for (int i = 0; i < length; i++) {
+            char currentCharacter = text.charAt(i);
+            if (currentCharacter == quote) {
+                hasQuote = true;
+            } else {
+                onlyQuotes = false;
+                if (currentCharacter == dialect.delimiter() || currentCharacter == '\n' || currentCharacter == '\r'
+                        || (dialect.hasEscape() && currentCharacter == dialect.escape()))
+                    needsWrap = true;
+            }
+        }
+
+        if (onlyQuotes)
+            return Quoting.DOUBLE_QUOTES;
+
+        // Whitespace at the ends would be trimmed, and a record that starts with the comment prefix skipped
+        if (dialect.trimWhitespace()
+                && (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(length - 1))))
+            needsWrap = true;
+        if (startOfRecordField && dialect.commentPrefix() != null && startsWith(text, dialect.commentPrefix()))
+            needsWrap = true;
+
+        return needsWrap || hasQuote ? Quoting.WRAP : Quoting.PLAIN;
+    }
+
+    /**
+     * Write the delimiter before every column except the first one of a record
+     *
+     * @throws IOException If the output could not be written
+     */
+    private void startField() throws IOException {
+        startOfRecordField = startOfRecord;
+        if (!startOfRecord)
+            writeChar(dialect.delimiter());
+        startOfRecord = false;
+    }
+
+    /**
+     * Check if some text starts with a prefix
+     *
+     * @param text   The text to check
+     * @param prefix The prefix to look for
+     * @return Returns true if the text starts with the prefix
+     */
+    private static boolean startsWith(CharSequence text, String prefix) {
+        if (text.length() < prefix.length())
+            return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(i) != prefix.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Encode one char as UTF-8 into the buffer (an unpaired surrogate is written as '?')
+     *
+     * @param character The char to write
+     * @throws IOException If the output could not be written
+     */
+    private void writeChar(char character) throws IOException {
+        ensureRoom(maxBytesPerChar);
+        if (character < 0x80) {
+            bytes[position++] = (byte) character;
+        } else if (character < 0x800) {
+            bytes[position++] = (byte) (0xC0 | (character >> 6));
+            bytes[position++] = (byte) (0x80 | (character & 0x3F));
+        } else if (Character.isSurrogate(character)) {
+            bytes[position++] = '?';
+        } else {
+            bytes[position++] = (byte) (0xE0 | (character >> 12));
+            bytes[position++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (character & 0x3F));
+        }
+    }
+
+    /**
+     * Encode part of a CharSequence as UTF-8 into the buffer
+     *
+     * @param text  The text to write
+     * @param start The index of the first char to write
+     * @param end   The index after the last char to write
+     * @throws IOException If the output could not be written
+     */
+    private void writeChars(CharSequence text, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            char currentCharacter = text.charAt(i);
+
+            // Plain ASCII goes straight in
+            if (currentCharacter < 0x80) {
+                if (position == bytes.length)
+                    flush();
+                bytes[position++] = (byte) currentCharacter;
+            } else if (Character.isHighSurrogate(currentCharacter) && i + 1 < end
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(currentCharacter, text.charAt(++i));
+                ensureRoom(maxBytesPerChar);
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                writeChar(currentCharacter);
+            }
+        }
+    }
+
+    /**
+     * Make sure that the buffer has room for some bytes, writing it out if it does not
+     *
+     * @param byteCount The number of bytes needed
+     * @throws IOException If the output could not be written
+     */
+    private void ensureRoom(int byteCount) throws IOException {
+        if (position + byteCount > bytes.length)
+            flush();
+    }
+}
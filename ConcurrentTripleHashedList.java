@@ -0,0 +1,307 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe version of TripleHashedLinkedList: the same key-key-key-value collection, stored in one
+ * ConcurrentHashMap keyed on the whole (first, second, third) key triple, so any number of threads can put, get
+ * and remove at once.<br>
+ * Adding an element goes through ConcurrentHashMap.compute, so creating a key triple's collision list and
+ * appending to it are one atomic step that only locks that key's bin of the map. Writers of different key
+ * triples do not wait for each other, and two writers of the same key triple never lose an element.<br>
+ * Reads take no locks at all. A collision list is an array and a count: a writer stores the element (in a new,
+ * larger array if it has to grow, which is then published) before it publishes the new count, so a reader that
+ * sees the count also sees every element up to it. A read is a consistent snapshot of the list at that moment.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ *
+ * Generics: K - The first key's type
+ *           S - The second key's type
+ *           U - The final key's type
+ *           V - The type of the value to be stored
+ */
+public final class ConcurrentTripleHashedList<K, S, U, V> {
+
+    /** The number of entries that a new collision list has room for */
+    private static final int initialListCapacity = 2;
+
+    /** A key triple (with its hash worked out once) */
+    private static final class TripleKey {
+
+        /** The first-axis key */
+        final Object firstKey;
+
+        /** The second-axis key */
+        final Object secondKey;
+
+        /** The third-axis key */
+        final Object thirdKey;
+
+        /** The combined hash of the keys */
+        final int hash;
+
+        /**
+         * Make a key triple
+         *
+         * @param firstKey  The first-axis key
+         * @param secondKey The second-axis key
+         * @param thirdKey  The third-axis key
+         */
+        TripleKey(Object firstKey, Object secondKey, Object thirdKey) {
+            this.firstKey = firstKey;
+            this.secondKey = secondKey;
+            this.thirdKey = thirdKey;
+            this.hash = (firstKey.hashCode() * 31 + secondKey.hashCode()) * 31 + thirdKey.hashCode();
+        }
+
+        /**
+         * Get the hash of the key triple
+         *
+         * @return Returns the combined hash of the three keys
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Check if another key triple has the same keys
+         *
+         * @param other The object to compare to
+         * @return Returns true if the other object is a key triple with equal keys
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+            if (!(other instanceof TripleKey))
+                return false;
+            TripleKey key = (TripleKey) other;
+            return hash == key.hash && firstKey.equals(key.firstKey) && secondKey.equals(key.secondKey)
+                    && thirdKey.equals(key.thirdKey);
+        }
+    }
+
+    /** The collision list of a key triple (written only inside compute, read without locking) */
+    private static final class Bucket {
+
+        /** The elements, oldest first */
+        volatile Object[] elements = new Object[initialListCapacity];
+
+        /** The number of elements that have been published */
+        volatile int count = 0;
+
+        /**
+         * Add an element (the caller holds the map's lock for this key triple)
+         *
+         * @param element The element to add
+         */
+        void append(Object element) {
+            Object[] array = elements;
+            int size = count;
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+                elements = array;
+            }
+
+            // The element has to be in place before the count that makes it visible
+            array[size] = element;
+            count = size + 1;
+        }
+
+        /**
+         * Copy the published elements
+         *
+         * @return Returns the elements, newest first
+         */
+        @SuppressWarnings("unchecked")
+        <V> List<V> snapshot() {
+            // Read the count first: the array read after it holds at least that many elements
+            int size = count;
+            Object[] array = elements;
+            List<V> copy = new ArrayList<>(size);
+            for (int i = size - 1; i >= 0; i--)
+                copy.add((V) array[i]);
+            return copy;
+        }
+    }
+
+    /** The collision lists by key triple */
+    private final ConcurrentHashMap<TripleKey, Bucket> buckets;
+
+    /**
+     * Returns a new, empty ConcurrentTripleHashedList
+     */
+    public ConcurrentTripleHashedList() {
+        this.buckets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns a new, empty ConcurrentTripleHashedList with room for a number of key triples before it has to grow
+     *
+     * @param expectedTriples The number of key triples that are expected
+     * @throws IllegalArgumentException If the number is negative
+     */
+    public ConcurrentTripleHashedList(int expectedTriples) {
+        this.buckets = new ConcurrentHashMap<>(expectedTriples);
+    }
+
+    /**
+     * Make the map key of a key triple that is being looked up
+     *
+     * @param firstKey  The first-axis key
+     * @param secondKey The second-axis key
+     * @param thirdKey  The third-axis key
+     * @return Returns the key triple, or null if any key is null (nothing can be stored under a null key)
+     */
+    private static TripleKey lookupKey(Object firstKey, Object secondKey, Object thirdKey) {
+        if (firstKey == null || secondKey == null || thirdKey == null)
+            return null;
+        return new TripleKey(firstKey, secondKey, thirdKey);
+    }
+
+    /**
+     * Get the collision list of a key triple
+     *
+     * @param firstKey  The first-axis key
+     * @param secondKey The second-axis key
+     * @param thirdKey  The third-axis key
+     * @return Returns the collision list, or null if the key triple is not there
+     */
+    private Bucket bucket(Object firstKey, Object secondKey, Object thirdKey) {
+        TripleKey key = lookupKey(firstKey, secondKey, thirdKey);
+        return key == null ? null : buckets.get(key);
+    }
+
+    /**
+     * Add a value to the ConcurrentTripleHashedList at the provided key triplet position (atomically, so
+     * concurrent puts to the same key triplet all end up in its collision list)
+     * This will not overwrite an element at that position, it will just "chain" them together
+     *
+     * @param firstKey  The first-axis key corresponding to an element
+     * @param secondKey The second-axis key corresponding to an element
+     * @param thirdKey  The third-axis key corresponding to an element
+     * @param element   The element to be added to the front of the collision list at the key triplet's location
+     * @throws NullPointerException If any of the keys is null
+     */
+    public void put(K firstKey, S secondKey, U thirdKey, V element) {
+        Objects.requireNonNull(firstKey, "firstKey");
+        Objects.requireNonNull(secondKey, "secondKey");
+        Objects.requireNonNull(thirdKey, "thirdKey");
+
+        buckets.compute(new TripleKey(firstKey, secondKey, thirdKey), (key, bucket) -> {
+            if (bucket == null)
+                bucket = new Bucket();
+            bucket.append(element);
+            return bucket;
+        });
+    }
+
+    /**
+     * Get the list of elements corresponding to a provided key triplet (without locking)
+     *
+     * @param firstKey  The first-axis key corresponding to an element list
+     * @param secondKey The second-axis key corresponding to an element list
+     * @param thirdKey  The third-axis key corresponding to an element list
+     * @return Returns a snapshot of the elements that the provided key triplet corresponds to, newest first.
+     *         Returns null if the key triplet is not in the ConcurrentTripleHashedList
+     */
+    public List<V> getElementList(K firstKey, S secondKey, U thirdKey) {
+        Bucket bucket = bucket(firstKey, secondKey, thirdKey);
+        return bucket == null ? null : bucket.snapshot();
+    }
+
+    /**
+     * Get the number of elements corresponding to a provided key triplet (without locking or copying them)
+     *
+     * @param firstKey  The first-axis key corresponding to an element list
+     * @param secondKey The second-axis key corresponding to an element list
+     * @param thirdKey  The third-axis key corresponding to an element list
+     * @return Returns the number of elements, or 0 if the key triplet is not in the ConcurrentTripleHashedList
+     */
+    public int getElementCount(K firstKey, S secondKey, U thirdKey) {
+        Bucket bucket = bucket(firstKey, secondKey, thirdKey);
+        return bucket == null ? 0 : bucket.count;
+    }
+
+    /**
+     * Removes the entire collision list from the ConcurrentTripleHashedList at the specified key triplet,
+     * removes the key triplet, and returns that list (a put to the same key triplet after this starts a new list)
+     *
+     * @param firstKey  The first-axis key corresponding to an element collision list
+     * @param secondKey The second-axis key corresponding to an element collision list
+     * @param thirdKey  The third-axis key corresponding to an element collision list
+     * @return Returns the entire collision list corresponding to the provided key triplet, newest first.
+     *         Returns null if that set of keys does not correspond to a collision list.
+     */
+    public List<V> remove(K firstKey, S secondKey, U thirdKey) {
+        TripleKey key = lookupKey(firstKey, secondKey, thirdKey);
+        Bucket bucket = key == null ? null : buckets.remove(key);
+
+        // Every put to the bucket finished inside compute before the remove, so the snapshot is complete
+        return bucket == null ? null : bucket.snapshot();
+    }
+
+    /**
+     * Get the number of key triplets in the ConcurrentTripleHashedList
+     *
+     * @return Returns the number of collision lists (an estimate while other threads are changing it)
+     */
+    public long size() {
+        return buckets.mappingCount();
+    }
+
+    /**
+     * Get a list of the keys in the first axis of the ConcurrentTripleHashedList (this scans every key triplet,
+     * and does not block other threads)
+     *
+     * @return Returns a list of the distinct keys in the first key set
+     */
+    @SuppressWarnings("unchecked")
+    public List<K> getFirstKeySet() {
+        Set<K> keys = new LinkedHashSet<>();
+        for (TripleKey key : buckets.keySet())
+            keys.add((K) key.firstKey);
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Get a list of the keys in the second axis of the ConcurrentTripleHashedList that correspond to a first key
+     * (this scans every key triplet)
+     *
+     * @param firstKey The first-axis key defining the second-axis key set to be gathered
+     * @return Returns a list of the distinct keys in the second-axis key set corresponding to the input key.
+     *         Returns null if there is no key triplet with the firstKey provided.
+     */
+    @SuppressWarnings("unchecked")
+    public List<S> getSecondKeySet(K firstKey) {
+        Set<S> keys = new LinkedHashSet<>();
+        for (TripleKey key : buckets.keySet())
+            if (key.firstKey.equals(firstKey))
+                keys.add((S) key.secondKey);
+        return keys.isEmpty() ? null : new ArrayList<>(keys);
+    }
+
+    /**
+     * Get a list of the keys for the third axis of the ConcurrentTripleHashedList that correspond to the given
+     * firstKey and secondKey (this scans every key triplet)
+     *
+     * @param firstKey  The first-axis key defining the specific plane in which to look for the second-axis key
+     * @param secondKey The second-axis key that defines the "line" from which to pull the third-axis keys
+     * @return Returns a list of the keys for the third-axis set corresponding to the provided first- and
+     *         second-axes provided. Returns null if there is no key triplet with the first and second keys
+     */
+    @SuppressWarnings("unchecked")
+    public List<U> getThirdKeySet(K firstKey, S secondKey) {
+        List<U> keys = new ArrayList<>();
+        for (TripleKey key : buckets.keySet())
+            if (key.firstKey.equals(firstKey) && key.secondKey.equals(secondKey))
+                keys.add((U) key.thirdKey);
+        return keys.isEmpty() ? null : keys;
+    }
+}
@@ -0,0 +1,499 @@
+import java.math.BigInteger;
+
+/**
+ * Writes doubles as ASCII straight into a byte array, in the same format as Double.toString, without making
+ * a String for each one. The digits are the shortest ones that read back as the same double, found with the
+ * Schubfach algorithm (R. Giulietti, "The Schubfach way to render doubles", 2020), which is what
+ * Double.toString uses since JDK 19.<br>
+ * Floats are written the same way in the format of Float.toString with formatFloat(), using the high half
+ * of the same powers table.<br>
+ * Older JDKs sometimes print one more digit than needed, so on those (see isShortest) format() and
+ * formatFloat() use Double.toString and Float.toString themselves to keep the output the same, and only the
+ * String-free copying is saved.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class DoubleFormatter {
+
+    /** The most bytes that format() writes for one double (e.g. "-2.2250738585072014E-308") */
+    public static final int maxLength = 24;
+
+    /** Whether this JDK's Double.toString gives the shortest digits (so the fast path matches it) */
+    public static final boolean isShortest = Runtime.version().feature() >= 19;
+
+    /** The number of bits in the significand of a double (with the hidden bit) */
+    private static final int precision = 53;
+
+    /** The exponent of the smallest subnormal double */
+    private static final int minExponent = -1074;
+
+    /** The hidden bit of a normal double */
+    private static final long hiddenBit = 1L << (precision - 1);
+
+    /** The number of bits in the significand of a float (with the hidden bit) */
+    private static final int floatPrecision = 24;
+
+    /** The exponent of the smallest subnormal float */
+    private static final int minFloatExponent = -149;
+
+    /** The hidden bit of a normal float */
+    private static final int floatHiddenBit = 1 << (floatPrecision - 1);
+
+    /** Subnormal float significands below this are scaled by 10 */
+    private static final int tinyFloatSignificand = 8;
+
+    /** The low 32 bits of a long */
+    private static final long mask32 = 0xFFFF_FFFFL;
+
+    /** The smallest decimal exponent that the powers table needs */
+    private static final int minPowerOf10 = -324;
+
+    /** The largest decimal exponent that the powers table needs */
+    private static final int maxPowerOf10 = 292;
+
+    /** Subnormal significands below this are scaled by 10 (there are too few digits to pick from otherwise) */
+    private static final long tinySignificand = 3;
+
+    /** The number of decimal digits that the shortest digits can have at most */
+    private static final int maxDigits = 17;
+
+    /** 10^0 to 10^(maxDigits - 1) */
+    private static final long[] powersOf10 = new long[maxDigits];
+
+    static {
+        powersOf10[0] = 1;
+        for (int i = 1; i < maxDigits; i++)
+            powersOf10[i] = 10 * powersOf10[i - 1];
+    }
+
+    /** The ASCII digits of 00 to 99 */
+    private static final byte[] digitPairs = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            digitPairs[2 * i] = (byte) ('0' + i / 10);
+            digitPairs[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    /** The low 63 bits of a long */
+    private static final long mask63 = Long.MAX_VALUE;
+
+    /**
+     * 10^-k as a 126 bit integer g = floor(10^-k * 2^-r) + 1 (with r picked so that 2^125 <= g < 2^126),
+     * split into the high 63 bits (at 2 * (k - minPowerOf10)) and the low 63 bits (at the next index)
+     */
+    private static final long[] powers = buildPowers();
+
+    /** Utility class */
+    private DoubleFormatter() {
+    }
+
+    /**
+     * Work out the powers table
+     *
+     * @return Returns the table
+     */
+    private static long[] buildPowers() {
+        long[] table = new long[2 * (maxPowerOf10 - minPowerOf10 + 1)];
+        BigInteger low63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = minPowerOf10; k <= maxPowerOf10; k++) {
+            // 10^-k * 2^-r with r = floor(log2(10^-k)) - 125, which is exact for 10^-k >= 1
+            int r = floorLog2Pow10(-k) - 125;
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                g = (r >= 0 ? power.shiftRight(r) : power.shiftLeft(-r)).add(BigInteger.ONE);
+            } else {
+                g = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k)).add(BigInteger.ONE);
+            }
+            table[2 * (k - minPowerOf10)] = g.shiftRight(63).longValue();
+            table[2 * (k - minPowerOf10) + 1] = g.and(low63).longValue();
+        }
+        return table;
+    }
+
+    /**
+     * Write a double in the format of Double.toString
+     *
+     * @param value    The value to write
+     * @param target   The array to write to (must have room for maxLength bytes)
+     * @param position The index to start writing at
+     * @return Returns the index after the last byte written
+     */
+    public static int format(double value, byte[] target, int position) {
+        if (!isShortest)
+            return copy(Double.toString(value), target, position);
+
+        long bits = Double.doubleToRawLongBits(value);
+        long fraction = bits & (hiddenBit - 1);
+        int biasedExponent = (int) (bits >>> (precision - 1)) & 0x7FF;
+
+        if (biasedExponent == 0x7FF) {
+            if (fraction != 0)
+                return copy("NaN", target, position);
+            return copy(bits < 0 ? "-Infinity" : "Infinity", target, position);
+        }
+
+        if (bits < 0)
+            target[position++] = '-';
+
+        if (biasedExponent != 0) {
+            // A normal double is c * 2^q
+            int shift = -minExponent + 1 - biasedExponent;
+            long significand = hiddenBit | fraction;
+
+            // Integers that fit in the significand are written as they are
+            if (0 < shift && shift < precision) {
+                long integer = significand >> shift;
+                if (integer << shift == significand)
+                    return writeDecimal(integer, 0, target, position);
+            }
+            return writeShortest(-shift, significand, 0, target, position);
+        }
+
+        if (fraction != 0) {
+            return fraction < tinySignificand
+                    ? writeShortest(minExponent, 10 * fraction, -1, target, position)
+                    : writeShortest(minExponent, fraction, 0, target, position);
+        }
+        return copy("0.0", target, position);
+    }
+
+    /**
+     * Write a float in the format of Float.toString
+     *
+     * @param value    The value to write
+     * @param target   The array to write to (must have room for maxLength bytes)
+     * @param position The index to start writing at
+     * @return Returns the index after the last byte written
+     */
+    public static int formatFloat(float value, byte[] target, int position) {
+        if (!isShortest)
+            return copy(Float.toString(value), target, position);
+
+        int bits = Float.floatToRawIntBits(value);
+        int fraction = bits & (floatHiddenBit - 1);
+        int biasedExponent = (bits >>> (floatPrecision - 1)) & 0xFF;
+
+        if (biasedExponent == 0xFF) {
+            if (fraction != 0)
+                return copy("NaN", target, position);
+            return copy(bits < 0 ? "-Infinity" : "Infinity", target, position);
+        }
+
+        if (bits < 0)
+            target[position++] = '-';
+
+        if (biasedExponent != 0) {
+            // A normal float is c * 2^q
+            int shift = -minFloatExponent + 1 - biasedExponent;
+            int significand = floatHiddenBit | fraction;
+
+            // Integers that fit in the significand are written as they are
+            if (0 < shift && shift < floatPrecision) {
+                int integer = significand >> shift;
+                if (integer << shift == significand)
+                    return writeDecimal(integer, 0, target, position);
+            }
+            return writeShortestFloat(-shift, significand, 0, target, position);
+        }
+
+        if (fraction != 0) {
+            return fraction < tinyFloatSignificand
+                    ? writeShortestFloat(minFloatExponent, 10 * fraction, -1, target, position)
+                    : writeShortestFloat(minFloatExponent, fraction, 0, target, position);
+        }
+        return copy("0.0", target, position);
+    }
+
+    /**
+     * Find the shortest decimal that rounds to the float c * 2^q and write it (writeShortest with 64 bit
+     * arithmetic, which is enough for the 24 bit significand)
+     *
+     * @param q               The binary exponent
+     * @param c               The significand
+     * @param decimalExponent An extra power of 10 to divide by (for the scaled tiny subnormals)
+     * @param target          The array to write to
+     * @param position        The index to start writing at
+     * @return Returns the index after the last byte written
+     */
+    private static int writeShortestFloat(int q, int c, int decimalExponent, byte[] target, int position) {
+        int odd = c & 1;
+        long cb = (long) c << 2;
+        long cbRight = cb + 2;
+        long cbLeft;
+        int k;
+        if (c != floatHiddenBit || q == minFloatExponent) {
+            cbLeft = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbLeft = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 33;
+
+        // Only the high 63 bits of the power are needed (rounded up)
+        long g = powers[2 * (k - minPowerOf10)] + 1;
+        int vb = roundOddFloat(g, cb << h);
+        int vbLeft = roundOddFloat(g, cbLeft << h);
+        int vbRight = roundOddFloat(g, cbRight << h);
+
+        // Try one digit less first: a multiple of 10 inside the rounding interval
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (s / 10);
+            int tp10 = sp10 + 10;
+            boolean sp10Inside = vbLeft + odd <= sp10 << 2;
+            boolean tp10Inside = (tp10 << 2) + odd <= vbRight;
+            if (sp10Inside != tp10Inside)
+                return writeDecimal(sp10Inside ? sp10 : tp10, k, target, position);
+        }
+
+        // Otherwise the closest of s and s + 1 that is inside (ties go to the even one)
+        int t = s + 1;
+        boolean sInside = vbLeft + odd <= s << 2;
+        boolean tInside = (t << 2) + odd <= vbRight;
+        if (sInside != tInside)
+            return writeDecimal(sInside ? s : t, k + decimalExponent, target, position);
+        int comparison = vb - (s + t << 1);
+        boolean pickS = comparison < 0 || comparison == 0 && (s & 1) == 0;
+        return writeDecimal(pickS ? s : t, k + decimalExponent, target, position);
+    }
+
+    /**
+     * Multiply by the 63 bit power and round to odd (the result keeps a sticky low bit)
+     *
+     * @param g  The power
+     * @param cp The value to multiply
+     * @return Returns the top bits of the product
+     */
+    private static int roundOddFloat(long g, long cp) {
+        long x = Math.multiplyHigh(g, cp);
+        return (int) (x >>> 31 | (x & mask32) + mask32 >>> 32);
+    }
+
+    /**
+     * Find the shortest decimal that rounds to c * 2^q (the heart of Schubfach) and write it
+     *
+     * @param q               The binary exponent
+     * @param c               The significand
+     * @param decimalExponent An extra power of 10 to divide by (for the scaled tiny subnormals)
+     * @param target          The array to write to
+     * @param position        The index to start writing at
+     * @return Returns the index after the last byte written
+     */
+    private static int writeShortest(int q, long c, int decimalExponent, byte[] target, int position) {
+        // The halfway points to the neighbouring doubles are (cb - 2) / 4 and (cb + 2) / 4 times 2^q, except
+        // that the one below a power of 2 is closer
+        int odd = (int) c & 1;
+        long cb = c << 2;
+        long cbRight = cb + 2;
+        long cbLeft;
+        int k;
+        if (c != hiddenBit || q == minExponent) {
+            cbLeft = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbLeft = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+
+        // The value and its halfway points scaled by 10^-k (with a sticky bit for any inexact rounding)
+        long g1 = powers[2 * (k - minPowerOf10)];
+        long g0 = powers[2 * (k - minPowerOf10) + 1];
+        long vb = roundOdd(g1, g0, cb << h);
+        long vbLeft = roundOdd(g1, g0, cbLeft << h);
+        long vbRight = roundOdd(g1, g0, cbRight << h);
+
+        // Try one digit less first: a multiple of 10 inside the rounding interval
+        long s = vb >> 2;
+        if (s >= 100) {
+            long sp10 = 10 * (s / 10);
+            long tp10 = sp10 + 10;
+            boolean sp10Inside = vbLeft + odd <= sp10 << 2;
+            boolean tp10Inside = (tp10 << 2) + odd <= vbRight;
+            if (sp10Inside != tp10Inside)
+                return writeDecimal(sp10Inside ? sp10 : tp10, k, target, position);
+        }
+
+        // Otherwise the closest of s and s + 1 that is inside (ties go to the even one)
+        long t = s + 1;
+        boolean sInside = vbLeft + odd <= s << 2;
+        boolean tInside = (t << 2) + odd <= vbRight;
+        if (sInside != tInside)
+            return writeDecimal(sInside ? s : t, k + decimalExponent, target, position);
+        long comparison = vb - (s + t << 1);
+        boolean pickS = comparison < 0 || comparison == 0 && (s & 1) == 0;
+        return writeDecimal(pickS ? s : t, k + decimalExponent, target, position);
+    }
+
+    /**
+     * Multiply by the 126 bit power and round to odd (the result keeps a sticky low bit)
+     *
+     * @param g1 The high 63 bits of the power
+     * @param g0 The low 63 bits of the power
+     * @param cp The value to multiply
+     * @return Returns the top bits of the product
+     */
+    private static long roundOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & mask63) + mask63 >>> 63;
+    }
+
+    /**
+     * Write f * 10^e in the format of Double.toString: plain for 10^-3 <= value < 10^7, otherwise as
+     * d.dddE(exponent), always with at least one digit after the point
+     *
+     * @param f        The digits (not 0)
+     * @param e        The power of 10 to multiply them by
+     * @param target   The array to write to
+     * @param position The index to start writing at
+     * @return Returns the index after the last byte written
+     */
+    private static int writeDecimal(long f, int e, byte[] target, int position) {
+        // Drop the trailing zeros (they only move the exponent)
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int digitCount = 1;
+        while (digitCount < maxDigits && f >= powersOf10[digitCount])
+            digitCount++;
+
+        // The value is 0.digits * 10^point
+        int point = digitCount + e;
+        if (0 < point && point <= 7) {
+            if (point >= digitCount) {
+                position = writeDigits(f, digitCount, target, position);
+                for (int i = digitCount; i < point; i++)
+                    target[position++] = '0';
+                target[position++] = '.';
+                target[position++] = '0';
+                return position;
+            }
+            long split = powersOf10[digitCount - point];
+            position = writeDigits(f / split, point, target, position);
+            target[position++] = '.';
+            return writeDigits(f % split, digitCount - point, target, position);
+        }
+
+        if (-3 < point && point <= 0) {
+            target[position++] = '0';
+            target[position++] = '.';
+            for (int i = point; i < 0; i++)
+                target[position++] = '0';
+            return writeDigits(f, digitCount, target, position);
+        }
+
+        long split = powersOf10[digitCount - 1];
+        target[position++] = (byte) ('0' + f / split);
+        target[position++] = '.';
+        if (digitCount == 1)
+            target[position++] = '0';
+        else
+            position = writeDigits(f % split, digitCount - 1, target, position);
+
+        target[position++] = 'E';
+        int exponent = point - 1;
+        if (exponent < 0) {
+            target[position++] = '-';
+            exponent = -exponent;
+        }
+        return writeDigits(exponent, exponent >= 100 ? 3 : exponent >= 10 ? 2 : 1, target, position);
+    }
+
+    /**
+     * Write a fixed number of decimal digits (with leading zeros)
+     *
+     * @param value    The value to write (not negative)
+     * @param count    The number of digits to write
+     * @param target   The array to write to
+     * @param position The index of the first digit
+     * @return Returns the index after the last digit
+     */
+    private static int writeDigits(long value, int count, byte[] target, int position) {
+        // The low 8 digits are written with int arithmetic, two at a time
+        int end = position + count;
+        int i = end;
+        while (i - position > 8) {
+            long high = value / 100_000_000;
+            writeDigitPairs((int) (value - high * 100_000_000), end - 8, 8, target);
+            value = high;
+            end -= 8;
+            i = end;
+        }
+        writeDigitPairs((int) value, position, end - position, target);
+        return position + count;
+    }
+
+    /**
+     * Write up to 8 decimal digits of an int (with leading zeros), two at a time
+     *
+     * @param value    The value to write (not negative)
+     * @param position The index of the first digit
+     * @param count    The number of digits to write
+     * @param target   The array to write to
+     */
+    private static void writeDigitPairs(int value, int position, int count, byte[] target) {
+        int i = position + count;
+        while (i - position >= 2) {
+            int pair = value % 100;
+            value /= 100;
+            target[--i] = digitPairs[2 * pair + 1];
+            target[--i] = digitPairs[2 * pair];
+        }
+        if (i > position)
+            target[--i] = (byte) ('0' + value % 10);
+    }
+
+    /**
+     * Copy an ASCII string into the array
+     *
+     * @param text     The string to copy
+     * @param target   The array to write to
+     * @param position The index to start writing at
+     * @return Returns the index after the last byte written
+     */
+    private static int copy(String text, byte[] target, int position) {
+        for (int i = 0; i < text.length(); i++)
+            target[position++] = (byte) text.charAt(i);
+        return position;
+    }
+
+    /**
+     * floor(log10(2^e)) for |e| <= 5456721
+     *
+     * @param e The power of 2
+     * @return Returns the power of 10
+     */
+    private static int floorLog10Pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /**
+     * floor(log10(3/4 * 2^e)) for |e| <= 2^20
+     *
+     * @param e The power of 2
+     * @return Returns the power of 10
+     */
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    /**
+     * floor(log2(10^e)) for |e| <= 1233
+     *
+     * @param e The power of 10
+     * @return Returns the power of 2
+     */
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+}
@@ -1,14 +1,23 @@
 import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
  * An excessively-featured (overcomplicated?) FizzBuzz implementation
  * 
  * @author <em>Zach Baldwin</em>
- * @version 2020.04.25
+ * @version 2026.10.18
  */
 public class FizzBuzz {
 
@@ -97,12 +106,20 @@ public class FizzBuzz {
                         "    --buzzstring    <buzzString>       The string that represents \"Buzz\"\n" +
                         "    -s, --start     <startingNumber>   The number to start calculating FizzBuzz from (default: " + defaultStartNumber + ")\n" +
                         "    -e, --end       <endingNumber>     The number to stop calculating FizzBuzz on (inclusive, default: " + defaultEndNumber + ")\n" +
+                        "                                       (ranges past the int range are streamed)\n" +
                         "    -d, --delimiter <delimiter>        The delimiter to separate the output values (default: system-newline)\n" +
                         "    -o, --output    <filename>         Output the FizzBuzz numbering scheme to a <filename> (default prints to standard output)\n" +
                         "    --headlessprint <y|n>              Do not ask to print to screen if the output file is unable to be opened\n" +
                         "                                       y - Yes, output to standard output if there is a problem\n" +
                         "                                       n - No, do not output to standard output, just abort\n" +
                         "                                       No argument defaults to 'n'\n" +
+                        "    --stream                           Write the output in fixed-size chunks as it is generated instead of\n" +
+                        "                                       building it all in memory first (for very large ranges)\n" +
+                        "    -t, --threads   <count>            Render the output on <count> threads (implies --stream)\n" +
+                        "    -r, --rule      <divisor:word>     Write <word> for multiples of <divisor>, can be repeated to use any\n" +
+                        "                                       number of rules in place of fizz/buzz (implies --stream)\n" +
+                        "    --stats                            Print the rates, the time spent rendering and writing, and the GC,\n" +
+                        "                                       allocation and peak heap of the run as JSON on stderr (implies --stream)\n" +
                         "    -h, -?, --help                     Output this help menu to standard output.\n\n" +
                         "Exit codes:\n" +
                         "    0 - Success\n" +
@@ -129,14 +146,19 @@ public class FizzBuzz {
             // Setup arguments for the FizzBuzz generation
             int fizzMultiple  = defaultFizzMultiple;
             int buzzMultiple  = defaultBuzzMultiple;
-            int startNumber   = defaultStartNumber;
-            int endNumber     = defaultEndNumber;
+            long startNumber  = defaultStartNumber;
+            long endNumber    = defaultEndNumber;
             String delimiter  = defaultDelimiter;
             String fizzString = defaultFizzString;
             String buzzString = defaultBuzzString;
             String outputFilename   = null;
             boolean promptForOutput = true;
             boolean headlessPrint   = false;
+            boolean stream          = false;
+            int threads             = 1;
+            boolean printStats      = false;
+            List<Long> ruleDivisors = new ArrayList<>();
+            List<String> ruleWords  = new ArrayList<>();
 
             // Scan for custom arguments
             int i = 0;
@@ -164,12 +186,12 @@ public class FizzBuzz {
                             break;
                         case "-s":
                         case "--start":
-                            startNumber = Integer.parseInt(args[i + 1]);
+                            startNumber = Long.parseLong(args[i + 1]);
                             i++;
                             break;
                         case "-e":
                         case "--end":
-                            endNumber = Integer.parseInt(args[i + 1]);
+                            endNumber = Long.parseLong(args[i + 1]);
                             i++;
                             break;
                         case "-d":
@@ -193,6 +215,30 @@ public class FizzBuzz {
                             }
                             i++;
                             break;
+                        case "--stream":
+                            stream = true;
+                            break;
+                        case "-t":
+                        case "--threads":
+                            threads = Integer.parseInt(args[i + 1]);
+                            stream = true;
+                            i++;
+                            break;
+                        case "-r":
+                        case "--rule":
+                            int separator = args[i + 1].indexOf(':');
+                            if (separator < 0) {
+                                throw new InvalidParameterException();
+                            }
+                            ruleDivisors.add(Long.parseLong(args[i + 1].substring(0, separator)));
+                            ruleWords.add(args[i + 1].substring(separator + 1));
+                            stream = true;
+                            i++;
+                            break;
+                        case "--stats":
+                            printStats = true;
+                            stream = true;
+                            break;
                         case "-?":
                         case "-h":
                         case "--help":
@@ -221,8 +267,53 @@ public class FizzBuzz {
                 System.exit(2);
             }
 
+            // There has to be at least one thread to do the work
+            if (threads < 1) {
+                System.out.println("Error: the thread count must be at least 1");
+                System.exit(2);
+            }
+
+            // Stream the output instead of building it (the output is the same), which also handles long ranges
+            if (stream || startNumber < Integer.MIN_VALUE || endNumber > Integer.MAX_VALUE) {
+                // The rules default to fizz and buzz
+                if (ruleDivisors.isEmpty()) {
+                    ruleDivisors.add((long) fizzMultiple);
+                    ruleWords.add(fizzString);
+                    ruleDivisors.add((long) buzzMultiple);
+                    ruleWords.add(buzzString);
+                }
+
+                long[] divisors = new long[ruleDivisors.size()];
+                for (int rule = 0; rule < divisors.length; rule++) {
+                    divisors[rule] = ruleDivisors.get(rule);
+                }
+
+                FizzBuzzStream generator = null;
+                try {
+                    generator = new FizzBuzzStream(divisors, ruleWords.toArray(new String[0]), delimiter,
+                            FizzBuzzStream.defaultChunkSize);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Error: " + e.getMessage());
+                    System.exit(2);
+                }
+
+                // Stats go to stderr so that they never mix with the output
+                RunStats stats = null;
+                if (printStats) {
+                    stats = new RunStats("FizzBuzz");
+                    stats.setThreads(threads);
+                    generator.setStats(stats);
+                }
+                streamFizzBuzz(generator, startNumber, endNumber, threads, outputFilename, promptForOutput,
+                        headlessPrint);
+                if (stats != null) {
+                    System.err.println(stats.toJson());
+                }
+                return;
+            }
+
             // Done parsing arguments, now run the FizzBuzz generator and output the result
-            String fizzBuzzOutput = FizzBuzzGenerator(fizzMultiple, buzzMultiple, startNumber, endNumber,
+            String fizzBuzzOutput = FizzBuzzGenerator(fizzMultiple, buzzMultiple, (int) startNumber, (int) endNumber,
                     delimiter, fizzString, buzzString);
 
             if (outputFilename != null) {
@@ -233,20 +324,8 @@ public class FizzBuzz {
                     outputBuffer.write(fizzBuzzOutput);
                     outputBuffer.close();
                 } catch (IOException e) {
-                    if (promptForOutput) {
-                        // Prompt the user for whether or not they want their FizzBuzz list to be output to the terminal
-                        Scanner inputScanner = new Scanner(System.in);
-                        System.out.print("There was a problem opening the output file, do you want to print to the terminal? [y|N]: ");
-                        if (inputScanner.next().equals("y")) {
-                            System.out.println(fizzBuzzOutput);
-                        }
-                    } else {
-                        if (headlessPrint) {
-                            System.out.println(fizzBuzzOutput);
-                        } else {
-                            System.err.println("File error: aborting");
-                            System.exit(5);
-                        }
+                    if (printInsteadOfFile(promptForOutput, headlessPrint)) {
+                        System.out.println(fizzBuzzOutput);
                     }
                 }
             } else {
@@ -254,4 +333,79 @@ public class FizzBuzz {
             }
         }
     }
+
+    /**
+     * Decide whether to print to standard output after the output file could not be opened
+     *
+     * @param promptForOutput Whether to ask the user
+     * @param headlessPrint   Whether to print without asking (when not prompting)
+     * @return Returns true if the output should be printed to standard output
+     */
+    private static boolean printInsteadOfFile(boolean promptForOutput, boolean headlessPrint) {
+        if (promptForOutput) {
+            // Prompt the user for whether or not they want their FizzBuzz list to be output to the terminal
+            Scanner inputScanner = new Scanner(System.in);
+            System.out.print("There was a problem opening the output file, do you want to print to the terminal? [y|N]: ");
+            return inputScanner.next().equals("y");
+        }
+
+        if (!headlessPrint) {
+            System.err.println("File error: aborting");
+            System.exit(5);
+        }
+        return true;
+    }
+
+    /**
+     * Stream the FizzBuzz output to the output file or standard output
+     *
+     * @param generator       The stream to generate the output with
+     * @param startNumber     The first number to write
+     * @param endNumber       The last number to write (inclusive)
+     * @param threads         The number of threads to render with
+     * @param outputFilename  The file to write to (or null for standard output)
+     * @param promptForOutput Whether to ask the user before printing if the file cannot be opened
+     * @param headlessPrint   Whether to print without asking if the file cannot be opened
+     */
+    private static void streamFizzBuzz(FizzBuzzStream generator, long startNumber, long endNumber, int threads,
+                                       String outputFilename, boolean promptForOutput, boolean headlessPrint) {
+        FileChannel fileOutput = null;
+        if (outputFilename != null) {
+            try {
+                fileOutput = FileChannel.open(Paths.get(outputFilename), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                if (!printInsteadOfFile(promptForOutput, headlessPrint)) {
+                    return;
+                }
+            }
+        }
+
+        try {
+            if (fileOutput != null) {
+                try (FileChannel output = fileOutput) {
+                    if (threads > 1) {
+                        generator.writeParallel(startNumber, endNumber, output, true, threads);
+                    } else {
+                        generator.write(startNumber, endNumber, output);
+                    }
+                }
+            } else {
+                // Standard output ends with a newline (like println), and is left open
+                WritableByteChannel output = new FileOutputStream(FileDescriptor.out).getChannel();
+                if (threads > 1) {
+                    generator.writeParallel(startNumber, endNumber, output, false, threads);
+                } else {
+                    generator.write(startNumber, endNumber, output);
+                }
+                ByteBuffer newline = ByteBuffer.wrap(System.lineSeparator().getBytes());
+                while (newline.hasRemaining()) {
+                    output.write(newline);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Output error: aborting");
+            System.exit(5);
+        }
+    }
 }
\ No newline at end of file
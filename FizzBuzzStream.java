@@ -0,0 +1,796 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes FizzBuzz output straight to a channel in fixed-size byte chunks instead of building one String, so
+ * any range can be written with constant memory. The output is the same as FizzBuzz.FizzBuzzGenerator: the
+ * delimiter goes after every number but the last, 0 is always written as a number, and the strings are
+ * encoded in the default charset (like FileWriter and System.out).<br>
+ * Any number of (divisor, word) rules can be used: a number that is a multiple of some of the divisors is
+ * written as the words of those rules (in order), any other number is written as-is.<br>
+ * The pattern of words repeats every lcm(divisors) numbers, so the words for one cycle (the wheel) are worked
+ * out up front and each number only looks up its place in the cycle (no division). The positive numbers are
+ * kept as ASCII digits that are incremented in place, so they are copied instead of formatted. Better yet,
+ * while the numbers keep the same length a whole rendered cycle is copied at a time, with only the digits of
+ * its numbers bumped (in place) between copies. Cycles longer than maxCycleLength fall back to a countdown
+ * per rule, and negative numbers are formatted one at a time.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class FizzBuzzStream {
+
+    /** The default size of the chunks that are written to the channel */
+    public static final int defaultChunkSize = 1 << 16;
+
+    /** The number of bytes that each thread of a parallel write renders at a time (about) */
+    private static final int parallelBlockSize = 1 << 20;
+
+    /** The longest cycle that is turned into a table */
+    private static final int maxCycleLength = 1 << 20;
+
+    /** The most bytes that a long can take as text */
+    private static final int maxNumberLength = Long.toString(Long.MIN_VALUE).length();
+
+    /** The divisor of each rule (positive) */
+    private final long[] divisors;
+
+    /** The encoded word of each rule */
+    private final byte[][] words;
+
+    /** The encoded delimiter that separates the numbers */
+    private final byte[] delimiter;
+
+    /** The words at each place of the cycle (null for numbers), or null if the cycle is too long */
+    private final byte[][] cycle;
+
+    /** One cycle of output (words, numbers and delimiters) that is copied while the numbers keep their length */
+    private final byte[] template;
+
+    /** The index of the last digit of each number in the template */
+    private final int[] templateNumberEnds;
+
+    /** The number of numbers in the template */
+    private int templateNumberCount = 0;
+
+    /** The chunk that the output is collected in */
+    private final byte[] chunk;
+
+    /** The most bytes that one number (with its delimiter) can take */
+    private final int maxEntryLength;
+
+    /** The stats that the writes are counted in (or null) */
+    private RunStats stats = null;
+
+    /** The time that the current chunk started being rendered at (only kept while counting stats) */
+    private long renderStart;
+
+    /** The first number that has not been counted in the stats yet (only kept while counting stats) */
+    private long countFrom;
+
+    /**
+     * Create a classic two rule stream with the default chunk size
+     *
+     * @param fizzMultiple The multiple number that defines a "Fizz"
+     * @param buzzMultiple The multiple number that defines a "Buzz"
+     * @param delimiter    The delimiter to separate the numbers in the output
+     * @param fizzString   The string to represent a "Fizz"
+     * @param buzzString   The string to represent a "Buzz"
+     * @throws IllegalArgumentException If a multiple is 0
+     */
+    public FizzBuzzStream(int fizzMultiple, int buzzMultiple, String delimiter, String fizzString, String buzzString) {
+        this(new long[] {fizzMultiple, buzzMultiple}, new String[] {fizzString, buzzString}, delimiter,
+                defaultChunkSize);
+    }
+
+    /**
+     * Create a classic two rule stream
+     *
+     * @param fizzMultiple The multiple number that defines a "Fizz"
+     * @param buzzMultiple The multiple number that defines a "Buzz"
+     * @param delimiter    The delimiter to separate the numbers in the output
+     * @param fizzString   The string to represent a "Fizz"
+     * @param buzzString   The string to represent a "Buzz"
+     * @param chunkSize    The number of bytes to collect before writing to the channel (grown if one number
+     *                     would not fit)
+     * @throws IllegalArgumentException If a multiple is 0
+     */
+    public FizzBuzzStream(int fizzMultiple, int buzzMultiple, String delimiter, String fizzString, String buzzString,
+                          int chunkSize) {
+        this(new long[] {fizzMultiple, buzzMultiple}, new String[] {fizzString, buzzString}, delimiter, chunkSize);
+    }
+
+    /**
+     * Create a stream with any number of rules
+     *
+     * @param divisors  The divisor of each rule (the sign is ignored)
+     * @param words     The word of each rule
+     * @param delimiter The delimiter to separate the numbers in the output
+     * @param chunkSize The number of bytes to collect before writing to the channel (grown if one number
+     *                  would not fit)
+     * @throws IllegalArgumentException If a divisor is 0 or Long.MIN_VALUE, or the arrays differ in length
+     */
+    public FizzBuzzStream(long[] divisors, String[] words, String delimiter, int chunkSize) {
+        if (divisors.length != words.length)
+            throw new IllegalArgumentException("Every rule needs a divisor and a word");
+
+        Charset charset = Charset.defaultCharset();
+        this.divisors = new long[divisors.length];
+        this.words = new byte[words.length][];
+        int wordsLength = 0;
+        for (int rule = 0; rule < divisors.length; rule++) {
+            if (divisors[rule] == 0 || divisors[rule] == Long.MIN_VALUE)
+                throw new IllegalArgumentException("Invalid divisor: " + divisors[rule]);
+            this.divisors[rule] = Math.abs(divisors[rule]);
+            this.words[rule] = words[rule].getBytes(charset);
+            wordsLength += this.words[rule].length;
+        }
+
+        this.delimiter = delimiter.getBytes(charset);
+        this.maxEntryLength = Math.max(maxNumberLength, wordsLength) + this.delimiter.length;
+        this.chunk = new byte[Math.max(chunkSize, maxEntryLength)];
+        this.cycle = buildCycle();
+
+        // A cycle is only copied whole if it fits in a chunk
+        boolean templateFits = cycle != null && (long) cycle.length * maxEntryLength <= chunk.length;
+        this.template = templateFits ? new byte[cycle.length * maxEntryLength] : null;
+        this.templateNumberEnds = templateFits ? new int[cycle.length] : null;
+    }
+
+    /**
+     * Create a stream with the same settings as another one (streams cannot be shared between threads)
+     *
+     * @param settings  The stream to copy the settings of
+     * @param chunkSize The number of bytes to collect before writing to the channel
+     */
+    private FizzBuzzStream(FizzBuzzStream settings, int chunkSize) {
+        this.divisors = settings.divisors;
+        this.words = settings.words;
+        this.delimiter = settings.delimiter;
+        this.maxEntryLength = settings.maxEntryLength;
+        this.chunk = new byte[Math.max(chunkSize, maxEntryLength)];
+        this.cycle = settings.cycle;
+        this.stats = settings.stats;
+
+        boolean templateFits = cycle != null && (long) cycle.length * maxEntryLength <= chunk.length;
+        this.template = templateFits ? new byte[cycle.length * maxEntryLength] : null;
+        this.templateNumberEnds = templateFits ? new int[cycle.length] : null;
+    }
+
+    /**
+     * Count the numbers, bytes, rendering time and I/O time of the following writes in some stats (rendering
+     * counts as formatting, since the words come straight from the table there is no separate generating step)
+     *
+     * @param stats The stats to count in (or null to stop counting)
+     */
+    public void setStats(RunStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Work out the words at each place of one cycle of lcm(divisors) numbers (places with the same rules
+     * share one array)
+     *
+     * @return Returns the words (null for numbers), or null if the cycle is too long
+     */
+    private byte[][] buildCycle() {
+        long cycleLength = 1;
+        for (long divisor : divisors) {
+            cycleLength = cycleLength / gcd(cycleLength, divisor) * divisor;
+            if (cycleLength > maxCycleLength)
+                return null;
+        }
+
+        Map<BitSet, byte[]> combinations = new HashMap<>();
+        byte[][] placeWords = new byte[(int) cycleLength][];
+        for (int place = 0; place < cycleLength; place++) {
+            BitSet matches = new BitSet(divisors.length);
+            for (int rule = 0; rule < divisors.length; rule++) {
+                if (place % divisors[rule] == 0)
+                    matches.set(rule);
+            }
+            if (!matches.isEmpty())
+                placeWords[place] = combinations.computeIfAbsent(matches, this::joinWords);
+        }
+        return placeWords;
+    }
+
+    /**
+     * Join the words of some rules
+     *
+     * @param rules The rules to join the words of
+     * @return Returns the words one after the other
+     */
+    private byte[] joinWords(BitSet rules) {
+        int length = 0;
+        for (int rule = rules.nextSetBit(0); rule >= 0; rule = rules.nextSetBit(rule + 1))
+            length += words[rule].length;
+
+        byte[] joined = new byte[length];
+        int position = 0;
+        for (int rule = rules.nextSetBit(0); rule >= 0; rule = rules.nextSetBit(rule + 1)) {
+            System.arraycopy(words[rule], 0, joined, position, words[rule].length);
+            position += words[rule].length;
+        }
+        return joined;
+    }
+
+    /**
+     * Find the greatest common divisor of two positive numbers
+     *
+     * @param a The first number
+     * @param b The second number
+     * @return Returns the largest number that divides both
+     */
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * Write the FizzBuzz notation of a range of numbers to a channel
+     *
+     * @param startNumber The first number to write
+     * @param endNumber   The last number to write (inclusive)
+     * @param output      The channel to write to
+     * @return Returns the number of bytes written
+     * @throws IOException If the channel could not be written
+     */
+    public long write(long startNumber, long endNumber, WritableByteChannel output) throws IOException {
+        return write(startNumber, endNumber, false, output);
+    }
+
+    /**
+     * Write the FizzBuzz notation of a range of numbers to a channel using several threads. The range is cut
+     * into blocks that the threads render into their own buffers, and the blocks are put together in order:
+     * with positional writes to a file (each block goes to its own region as soon as the blocks before it
+     * have been measured), or by taking turns writing to any other channel. The output is the same as write().
+     *
+     * @param startNumber The first number to write
+     * @param endNumber   The last number to write (inclusive)
+     * @param output      The channel to write to
+     * @param positional  Whether the channel is a regular file that can take positional writes (starting at
+     *                    offset 0, the channel's own position is not used)
+     * @param threads     The number of threads to render with
+     * @return Returns the number of bytes written
+     * @throws IOException If the channel could not be written
+     */
+    public long writeParallel(long startNumber, long endNumber, WritableByteChannel output, boolean positional,
+                              int threads) throws IOException {
+        if (positional && !(output instanceof FileChannel))
+            throw new IllegalArgumentException("Positional writes need a FileChannel");
+        if (startNumber > endNumber)
+            return 0;
+
+        // Each block fits in one chunk of its thread's stream, so it is rendered in one piece
+        // (the range can be wider than Long.MAX_VALUE, so its width is unsigned)
+        int numbersPerBlock = Math.max(1, Math.max(chunk.length, parallelBlockSize) / maxEntryLength);
+        long blockCount = Long.divideUnsigned(endNumber - startNumber, numbersPerBlock) + 1;
+        int workerCount = (int) Math.min(threads, blockCount);
+
+        BlockOrder order = new BlockOrder();
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int worker = 0; worker < workerCount; worker++) {
+                long firstBlock = worker;
+                FizzBuzzStream workerStream = new FizzBuzzStream(this, numbersPerBlock * maxEntryLength);
+
+                results.add(workers.submit(() -> {
+                    try {
+                        for (long block = firstBlock; block < blockCount; block += workerCount) {
+                            long blockStart = startNumber + block * numbersPerBlock;
+                            boolean lastBlock = Long.compareUnsigned(endNumber - blockStart, numbersPerBlock) < 0;
+                            long blockEnd = lastBlock ? endNumber : blockStart + numbersPerBlock - 1;
+                            workerStream.write(blockStart, blockEnd, !lastBlock,
+                                    new BlockChannel(order, block, output, positional));
+                        }
+                    } catch (Throwable t) {
+                        order.fail(t);
+                        throw t;
+                    } finally {
+                        if (stats != null)
+                            stats.threadDone();
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> result : results)
+                result.get();
+            return order.bytesWritten();
+        } catch (ExecutionException e) {
+            Throwable failure = order.failure();
+            throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Write the FizzBuzz notation of a range of numbers to a channel
+     *
+     * @param startNumber The first number to write
+     * @param endNumber   The last number to write (inclusive)
+     * @param delimitEnd  Whether to write a delimiter after the last number too (for a block of a larger range)
+     * @param output      The channel to write to
+     * @return Returns the number of bytes written
+     * @throws IOException If the channel could not be written
+     */
+    private long write(long startNumber, long endNumber, boolean delimitEnd, WritableByteChannel output)
+            throws IOException {
+        if (stats != null) {
+            countFrom = startNumber;
+            renderStart = System.nanoTime();
+        }
+        if (cycle == null)
+            return writeCounted(startNumber, endNumber, delimitEnd, output);
+
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        long bytesWritten = 0;
+        int position = 0;
+        int place = (int) Math.floorMod(startNumber, (long) cycle.length);
+
+        // The digits of the current number once it is not negative (right-aligned)
+        byte[] digits = new byte[maxNumberLength];
+        int digitStart = setDigits(digits, Math.max(startNumber, 0));
+
+        for (long i = startNumber; i <= endNumber; i++) {
+            // Whole cycles where the numbers keep the same length are copied from a template
+            if (place == 0 && template != null && i > 0 && canRepeatCycle(i, endNumber)) {
+                int templateLength = buildTemplate(i);
+                do {
+                    if (position + templateLength > chunk.length) {
+                        bytesWritten += writeChunk(buffer, position, output, i - 1);
+                        position = 0;
+                    }
+                    System.arraycopy(template, 0, chunk, position, templateLength);
+                    position += templateLength;
+                    i += cycle.length;
+                } while (canRepeatCycle(i, endNumber) && addToTemplateNumbers(cycle.length));
+
+                digitStart = setDigits(digits, i);
+            }
+
+            if (position + maxEntryLength > chunk.length) {
+                bytesWritten += writeChunk(buffer, position, output, i - 1);
+                position = 0;
+            }
+
+            // 0 is always written as a number
+            byte[] word = cycle[place];
+            if (word != null && i != 0) {
+                System.arraycopy(word, 0, chunk, position, word.length);
+                position += word.length;
+            } else if (i >= 0) {
+                for (int digit = digitStart; digit < digits.length; digit++)
+                    chunk[position++] = digits[digit];
+            } else {
+                position = writeNumber(i, chunk, position);
+            }
+
+            // Add the delimiter unless this is the last number (which also keeps i from overflowing)
+            if (i == endNumber) {
+                if (delimitEnd)
+                    position = writeBytes(delimiter, position);
+                break;
+            }
+            position = writeBytes(delimiter, position);
+
+            // Move to the next place of the cycle and count up the digits
+            if (++place == cycle.length)
+                place = 0;
+            if (i >= 0)
+                digitStart = increment(digits, digitStart);
+        }
+
+        return bytesWritten + writeChunk(buffer, position, output, endNumber);
+    }
+
+    /**
+     * Check if a whole cycle starting at a number can be copied from the template: every number in it needs
+     * a delimiter, and the numbers must all have the same length
+     *
+     * @param cycleStart The first (positive) number of the cycle
+     * @param endNumber  The last number to write
+     * @return Returns true if the cycle can be copied
+     */
+    private boolean canRepeatCycle(long cycleStart, long endNumber) {
+        if (endNumber - cycleStart < cycle.length)
+            return false;
+        return digitCount(cycleStart) == digitCount(cycleStart + cycle.length - 1);
+    }
+
+    /**
+     * Write one cycle (with its delimiters) into the template and note where each number ends
+     *
+     * @param cycleStart The first (positive) number of the cycle
+     * @return Returns the length of the template
+     */
+    private int buildTemplate(long cycleStart) {
+        int position = 0;
+        templateNumberCount = 0;
+        for (int place = 0; place < cycle.length; place++) {
+            byte[] word = cycle[place];
+            if (word != null) {
+                System.arraycopy(word, 0, template, position, word.length);
+                position += word.length;
+            } else {
+                position = writeNumber(cycleStart + place, template, position);
+                templateNumberEnds[templateNumberCount++] = position - 1;
+            }
+            System.arraycopy(delimiter, 0, template, position, delimiter.length);
+            position += delimiter.length;
+        }
+        return position;
+    }
+
+    /**
+     * Add to every number in the template, in place (the numbers must not get longer)
+     *
+     * @param amount The amount to add
+     * @return Returns true (so that it can be chained in a loop condition)
+     */
+    private boolean addToTemplateNumbers(int amount) {
+        for (int number = 0; number < templateNumberCount; number++) {
+            int carry = amount;
+            for (int digit = templateNumberEnds[number]; carry != 0; digit--) {
+                int sum = template[digit] - '0' + carry;
+                template[digit] = (byte) ('0' + sum % 10);
+                carry = sum / 10;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count the decimal digits of a positive number
+     *
+     * @param number The number to measure
+     * @return Returns the number of digits
+     */
+    private static int digitCount(long number) {
+        int digitCount = 1;
+        for (long remaining = number / 10; remaining != 0; remaining /= 10)
+            digitCount++;
+        return digitCount;
+    }
+
+    /**
+     * Set a number kept as right-aligned ASCII digits
+     *
+     * @param digits The digits
+     * @param number The (non-negative) value to set
+     * @return Returns the index of the first digit
+     */
+    private static int setDigits(byte[] digits, long number) {
+        int digitStart = digits.length;
+        do {
+            digits[--digitStart] = (byte) ('0' + number % 10);
+            number /= 10;
+        } while (number != 0);
+        return digitStart;
+    }
+
+    /**
+     * Add one to a number kept as right-aligned ASCII digits
+     *
+     * @param digits     The digits
+     * @param digitStart The index of the first digit
+     * @return Returns the index of the first digit after adding one
+     */
+    private static int increment(byte[] digits, int digitStart) {
+        int digit = digits.length - 1;
+        while (digit >= digitStart && digits[digit] == '9')
+            digits[digit--] = '0';
+
+        if (digit < digitStart) {
+            digits[--digitStart] = '1';
+        } else {
+            digits[digit]++;
+        }
+        return digitStart;
+    }
+
+    /**
+     * Write the FizzBuzz notation of a range of numbers to a channel when the cycle is too long for a table.
+     * Every rule counts down to its next multiple, so there is still no division per number.
+     *
+     * @param startNumber The first number to write
+     * @param endNumber   The last number to write (inclusive)
+     * @param delimitEnd  Whether to write a delimiter after the last number too
+     * @param output      The channel to write to
+     * @return Returns the number of bytes written
+     * @throws IOException If the channel could not be written
+     */
+    private long writeCounted(long startNumber, long endNumber, boolean delimitEnd, WritableByteChannel output)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        long bytesWritten = 0;
+        int position = 0;
+
+        // The distance from the current number to the next multiple of each divisor
+        long[] untilMultiple = new long[divisors.length];
+        for (int rule = 0; rule < divisors.length; rule++)
+            untilMultiple[rule] = (divisors[rule] - Math.floorMod(startNumber, divisors[rule])) % divisors[rule];
+
+        for (long i = startNumber; i <= endNumber; i++) {
+            // Send the chunk along once it might not fit another number
+            if (position + maxEntryLength > chunk.length) {
+                bytesWritten += writeChunk(buffer, position, output, i - 1);
+                position = 0;
+            }
+
+            // Write the words of the rules that hit this number (0 is always written as a number)
+            boolean matched = false;
+            for (int rule = 0; rule < divisors.length; rule++) {
+                if (untilMultiple[rule] == 0) {
+                    untilMultiple[rule] = divisors[rule];
+                    if (i != 0) {
+                        position = writeBytes(words[rule], position);
+                        matched = true;
+                    }
+                }
+                untilMultiple[rule]--;
+            }
+            if (!matched)
+                position = writeNumber(i, chunk, position);
+
+            // Add the delimiter unless this is the last number (which also keeps i from overflowing)
+            if (i == endNumber) {
+                if (delimitEnd)
+                    position = writeBytes(delimiter, position);
+                break;
+            }
+            position = writeBytes(delimiter, position);
+        }
+
+        return bytesWritten + writeChunk(buffer, position, output, endNumber);
+    }
+
+    /**
+     * Write the start of the chunk to the channel
+     *
+     * @param buffer The buffer wrapping the chunk
+     * @param length The number of bytes of the chunk to write
+     * @param output The channel to write to
+     * @param lastNumber The last number that is in the chunk
+     * @return Returns the number of bytes written
+     * @throws IOException If the channel could not be written
+     */
+    private int writeChunk(ByteBuffer buffer, int length, WritableByteChannel output, long lastNumber)
+            throws IOException {
+        long writeStart = stats == null ? 0 : System.nanoTime();
+
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining())
+            output.write(buffer);
+
+        // Everything since the last chunk was written went into rendering this one
+        if (stats != null) {
+            long writeEnd = System.nanoTime();
+            stats.addFormatNanos(writeStart - renderStart);
+            stats.addIoNanos(writeEnd - writeStart);
+            stats.addBytes(length);
+            renderStart = writeEnd;
+
+            // Counting a chunk at a time never overflows, even for a range of all 2^64 longs
+            stats.addElements(lastNumber - countFrom + 1);
+            countFrom = lastNumber + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Copy some bytes into the chunk
+     *
+     * @param bytes    The bytes to copy
+     * @param position The index in the chunk to copy them to
+     * @return Returns the index after the copied bytes
+     */
+    private int writeBytes(byte[] bytes, int position) {
+        System.arraycopy(bytes, 0, chunk, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    /**
+     * Write the decimal digits of a number into an array
+     *
+     * @param number   The number to write
+     * @param target   The array to write to
+     * @param position The index in the array to write it to
+     * @return Returns the index after the number
+     */
+    private static int writeNumber(long number, byte[] target, int position) {
+        // Work with the negative value so that Long.MIN_VALUE does not overflow
+        long value = number;
+        if (value < 0)
+            target[position++] = '-';
+        else
+            value = -value;
+
+        int digitCount = 1;
+        for (long remaining = value / 10; remaining != 0; remaining /= 10)
+            digitCount++;
+
+        for (int i = position + digitCount - 1; i >= position; i--) {
+            target[i] = (byte) ('0' - value % 10);
+            value /= 10;
+        }
+        return position + digitCount;
+    }
+
+    /**
+     * Hands out the turns of the blocks of a parallel write in order, and keeps track of where each block
+     * goes in the output
+     */
+    private static final class BlockOrder {
+
+        /** The index of the block whose turn it is */
+        private long currentBlock = 0;
+
+        /** The number of bytes in the blocks before the current one */
+        private long bytesWritten = 0;
+
+        /** The first exception thrown by a thread (or null) */
+        private Throwable failure = null;
+
+        /**
+         * Wait for the turn of a block
+         *
+         * @param block The index of the block
+         * @return Returns the offset in the output that the block starts at
+         * @throws InterruptedIOException If the thread was interrupted while waiting
+         * @throws CancellationException If another thread failed
+         */
+        synchronized long awaitTurn(long block) throws InterruptedIOException {
+            while (currentBlock != block) {
+                if (failure != null)
+                    throw new CancellationException("Another thread failed");
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            return bytesWritten;
+        }
+
+        /**
+         * End the turn of the current block and give it to the next one
+         *
+         * @param length The number of bytes in the current block
+         */
+        synchronized void passTurn(long length) {
+            bytesWritten += length;
+            currentBlock++;
+            notifyAll();
+        }
+
+        /**
+         * Record that a thread failed (and wake up the threads waiting on it)
+         *
+         * @param cause The exception thrown by the thread
+         */
+        synchronized void fail(Throwable cause) {
+            if (failure == null)
+                failure = cause;
+            notifyAll();
+        }
+
+        /**
+         * Get the first exception thrown by a thread
+         *
+         * @return Returns the exception, or null if no thread has failed
+         */
+        synchronized Throwable failure() {
+            return failure;
+        }
+
+        /**
+         * Get the number of bytes in the blocks that have had their turn
+         *
+         * @return Returns the number of bytes
+         */
+        synchronized long bytesWritten() {
+            return bytesWritten;
+        }
+    }
+
+    /**
+     * The channel that one rendered block is written through: it waits for the block's turn, then either
+     * claims the block's region of the file and writes it there (letting the next block go right away), or
+     * writes the block to the shared channel before passing the turn on
+     */
+    private static final class BlockChannel implements WritableByteChannel {
+
+        /** The order of the blocks */
+        private final BlockOrder order;
+
+        /** The index of the block */
+        private final long block;
+
+        /** The channel that all of the blocks go to */
+        private final WritableByteChannel output;
+
+        /** Whether the output is a file that takes positional writes */
+        private final boolean positional;
+
+        /**
+         * Create the channel for a block
+         *
+         * @param order      The order of the blocks
+         * @param block      The index of the block
+         * @param output     The channel that all of the blocks go to
+         * @param positional Whether the output is a file that takes positional writes
+         */
+        BlockChannel(BlockOrder order, long block, WritableByteChannel output, boolean positional) {
+            this.order = order;
+            this.block = block;
+            this.output = output;
+            this.positional = positional;
+        }
+
+        /**
+         * Write the whole block
+         *
+         * @param source The bytes of the block
+         * @return Returns the number of bytes written
+         * @throws IOException If the output could not be written
+         */
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            int length = source.remaining();
+            long offset = order.awaitTurn(block);
+            if (positional) {
+                order.passTurn(length);
+                while (source.hasRemaining())
+                    offset += ((FileChannel) output).write(source, offset);
+            } else {
+                while (source.hasRemaining())
+                    output.write(source);
+                order.passTurn(length);
+            }
+            return length;
+        }
+
+        /**
+         * Check if the channel is open
+         *
+         * @return Returns true if the output is open
+         */
+        @Override
+        public boolean isOpen() {
+            return output.isOpen();
+        }
+
+        /**
+         * Does nothing (the output belongs to the caller of writeParallel)
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,375 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A flat replacement for TripleHashedLinkedList: the same key-key-key-value collection (page, category and
+ * section, each with a collision list of entries), but stored in a single open-addressed hash table keyed on
+ * the whole (first, second, third) key triple instead of three levels of nested Hashtables.<br>
+ * A lookup hashes the three keys once into a combined hash and follows one linear probe sequence (the combined
+ * hash of every slot is kept in an int array, so most mismatches are rejected without calling equals). The
+ * entries of a key triple are kept in a growable array instead of linked nodes, so adding one is an array
+ * store and the table needs no node objects at all. Removing a key triple shifts the rest of its probe run
+ * back, so there are no tombstones and lookups never slow down after removals.<br>
+ * Like TripleHashedLinkedList, the newest entry of a collision list comes first and keys may not be null. It
+ * is not synchronized (see ConcurrentTripleHashedList for use from several threads).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ *
+ * Generics: K - The first key's type
+ *           S - The second key's type
+ *           U - The final key's type
+ *           V - The type of the value to be stored
+ */
+public final class FlatTripleHashedList<K, S, U, V> {
+
+    /** The number of slots of a new table */
+    private static final int defaultCapacity = 16;
+
+    /** The number of entries that a new collision list has room for */
+    private static final int initialListCapacity = 2;
+
+    /** The combined hash of the keys in each slot */
+    private int[] hashes;
+
+    /** The first-axis key in each slot */
+    private Object[] firstKeys;
+
+    /** The second-axis key in each slot */
+    private Object[] secondKeys;
+
+    /** The third-axis key in each slot */
+    private Object[] thirdKeys;
+
+    /** The entries of each slot's collision list, oldest first (null for an empty slot) */
+    private Object[][] lists;
+
+    /** The number of entries in each slot's collision list */
+    private int[] listSizes;
+
+    /** The number of key triples in the table */
+    private int size = 0;
+
+    /**
+     * Returns a new, empty FlatTripleHashedList
+     */
+    public FlatTripleHashedList() {
+        allocate(defaultCapacity);
+    }
+
+    /**
+     * Returns a new, empty FlatTripleHashedList with room for a number of key triples before it has to grow
+     *
+     * @param expectedTriples The number of key triples that are expected
+     * @throws IllegalArgumentException If the number is negative or too large
+     */
+    public FlatTripleHashedList(int expectedTriples) {
+        if (expectedTriples < 0 || expectedTriples > 1 << 29)
+            throw new IllegalArgumentException("Invalid number of key triples: " + expectedTriples);
+        allocate(Math.max(defaultCapacity, Integer.highestOneBit(Math.max(1, expectedTriples * 2 - 1)) << 1));
+    }
+
+    /**
+     * Make the arrays of an empty table
+     *
+     * @param capacity The number of slots (a power of 2)
+     */
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        firstKeys = new Object[capacity];
+        secondKeys = new Object[capacity];
+        thirdKeys = new Object[capacity];
+        lists = new Object[capacity][];
+        listSizes = new int[capacity];
+    }
+
+    /**
+     * Combine the hashes of a key triple (and mix the bits, since the slot is picked by the low bits)
+     *
+     * @param firstKey  The first-axis key
+     * @param secondKey The second-axis key
+     * @param thirdKey  The third-axis key
+     * @return Returns the combined hash
+     */
+    private static int hash(Object firstKey, Object secondKey, Object thirdKey) {
+        int h = (firstKey.hashCode() * 31 + secondKey.hashCode()) * 31 + thirdKey.hashCode();
+
+        // The MurmurHash3 finalizer
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Find the slot of a key triple
+     *
+     * @param firstKey  The first-axis key
+     * @param secondKey The second-axis key
+     * @param thirdKey  The third-axis key
+     * @param hash      The combined hash of the keys
+     * @return Returns the slot of the key triple, or -(the empty slot where it would go) - 1 if it is not there
+     */
+    private int find(Object firstKey, Object secondKey, Object thirdKey, int hash) {
+        int mask = lists.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            if (lists[slot] == null)
+                return -slot - 1;
+            if (hashes[slot] == hash && firstKeys[slot].equals(firstKey) && secondKeys[slot].equals(secondKey)
+                    && thirdKeys[slot].equals(thirdKey))
+                return slot;
+        }
+    }
+
+    /**
+     * Find the slot of a key triple that is being looked up
+     *
+     * @param firstKey  The first-axis key
+     * @param secondKey The second-axis key
+     * @param thirdKey  The third-axis key
+     * @return Returns the slot of the key triple, or a negative number if it is not there
+     */
+    private int find(Object firstKey, Object secondKey, Object thirdKey) {
+        // Hashtable does not allow null keys either, so nothing can be stored under one
+        if (firstKey == null || secondKey == null || thirdKey == null)
+            return -1;
+        return find(firstKey, secondKey, thirdKey, hash(firstKey, secondKey, thirdKey));
+    }
+
+    /**
+     * Add a value to the FlatTripleHashedList at the provided key triplet position
+     * This will not overwrite an element at that position, it will just "chain" them together
+     *
+     * @param firstKey  The first-axis key corresponding to an element
+     * @param secondKey The second-axis key corresponding to an element
+     * @param thirdKey  The third-axis key corresponding to an element
+     * @param element   The element to be added to the front of the collision list at the key triplet's location
+     * @throws NullPointerException If any of the keys is null
+     */
+    public void put(K firstKey, S secondKey, U thirdKey, V element) {
+        Objects.requireNonNull(firstKey, "firstKey");
+        Objects.requireNonNull(secondKey, "secondKey");
+        Objects.requireNonNull(thirdKey, "thirdKey");
+
+        int hash = hash(firstKey, secondKey, thirdKey);
+        int slot = find(firstKey, secondKey, thirdKey, hash);
+        if (slot < 0) {
+            // Keep the table at most half full, so the probe runs stay short
+            if ((size + 1) * 2 > lists.length) {
+                resize(lists.length * 2);
+                slot = find(firstKey, secondKey, thirdKey, hash);
+            }
+            slot = -slot - 1;
+            hashes[slot] = hash;
+            firstKeys[slot] = firstKey;
+            secondKeys[slot] = secondKey;
+            thirdKeys[slot] = thirdKey;
+            lists[slot] = new Object[initialListCapacity];
+            listSizes[slot] = 0;
+            size++;
+        }
+
+        // The list is stored oldest first, so adding to the front is an append
+        Object[] list = lists[slot];
+        if (listSizes[slot] == list.length)
+            lists[slot] = list = Arrays.copyOf(list, list.length * 2);
+        list[listSizes[slot]++] = element;
+    }
+
+    /**
+     * Move every key triple into a table of another size
+     *
+     * @param capacity The new number of slots (a power of 2)
+     */
+    private void resize(int capacity) {
+        int[] oldHashes = hashes;
+        Object[] oldFirstKeys = firstKeys;
+        Object[] oldSecondKeys = secondKeys;
+        Object[] oldThirdKeys = thirdKeys;
+        Object[][] oldLists = lists;
+        int[] oldListSizes = listSizes;
+        allocate(capacity);
+
+        // The keys are known to be distinct, so each one just goes in the first empty slot of its probe run
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldLists.length; oldSlot++) {
+            if (oldLists[oldSlot] == null)
+                continue;
+            int slot = oldHashes[oldSlot] & mask;
+            while (lists[slot] != null)
+                slot = (slot + 1) & mask;
+            hashes[slot] = oldHashes[oldSlot];
+            firstKeys[slot] = oldFirstKeys[oldSlot];
+            secondKeys[slot] = oldSecondKeys[oldSlot];
+            thirdKeys[slot] = oldThirdKeys[oldSlot];
+            lists[slot] = oldLists[oldSlot];
+            listSizes[slot] = oldListSizes[oldSlot];
+        }
+    }
+
+    /**
+     * Get the list of elements corresponding to a provided key triplet
+     *
+     * @param firstKey  The first-axis key corresponding to an element list
+     * @param secondKey The second-axis key corresponding to an element list
+     * @param thirdKey  The third-axis key corresponding to an element list
+     * @return Returns a copy of the elements that the provided key triplet corresponds to, newest first.
+     *         Returns null if the key triplet is not in the FlatTripleHashedList
+     */
+    public List<V> getElementList(K firstKey, S secondKey, U thirdKey) {
+        int slot = find(firstKey, secondKey, thirdKey);
+        if (slot < 0)
+            return null;
+        return newestFirst(lists[slot], listSizes[slot]);
+    }
+
+    /**
+     * Get the number of elements corresponding to a provided key triplet (without copying them)
+     *
+     * @param firstKey  The first-axis key corresponding to an element list
+     * @param secondKey The second-axis key corresponding to an element list
+     * @param thirdKey  The third-axis key corresponding to an element list
+     * @return Returns the number of elements, or 0 if the key triplet is not in the FlatTripleHashedList
+     */
+    public int getElementCount(K firstKey, S secondKey, U thirdKey) {
+        int slot = find(firstKey, secondKey, thirdKey);
+        return slot < 0 ? 0 : listSizes[slot];
+    }
+
+    /**
+     * Get one element corresponding to a provided key triplet (without copying the list)
+     *
+     * @param firstKey  The first-axis key corresponding to an element list
+     * @param secondKey The second-axis key corresponding to an element list
+     * @param thirdKey  The third-axis key corresponding to an element list
+     * @param index     The index of the element in the collision list (0 is the newest)
+     * @return Returns the element
+     * @throws IndexOutOfBoundsException If the key triplet is not there or has no element at the index
+     */
+    @SuppressWarnings("unchecked")
+    public V getElement(K firstKey, S secondKey, U thirdKey, int index) {
+        int slot = find(firstKey, secondKey, thirdKey);
+        int count = slot < 0 ? 0 : listSizes[slot];
+        Objects.checkIndex(index, count);
+        return (V) lists[slot][count - 1 - index];
+    }
+
+    /**
+     * Removes the entire collision list from the FlatTripleHashedList at the specified key triplet,
+     * removes the key triplet, and returns that list
+     *
+     * @param firstKey  The first-axis key corresponding to an element collision list
+     * @param secondKey The second-axis key corresponding to an element collision list
+     * @param thirdKey  The third-axis key corresponding to an element collision list
+     * @return Returns the entire collision list corresponding to the provided key triplet, newest first.
+     *         Returns null if that set of keys does not correspond to a collision list.
+     */
+    public List<V> remove(K firstKey, S secondKey, U thirdKey) {
+        int slot = find(firstKey, secondKey, thirdKey);
+        if (slot < 0)
+            return null;
+        List<V> removed = newestFirst(lists[slot], listSizes[slot]);
+
+        // Shift the rest of the probe run back into the hole, so every key stays reachable from its home slot
+        int mask = lists.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; lists[next] != null; next = (next + 1) & mask) {
+            int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                hashes[hole] = hashes[next];
+                firstKeys[hole] = firstKeys[next];
+                secondKeys[hole] = secondKeys[next];
+                thirdKeys[hole] = thirdKeys[next];
+                lists[hole] = lists[next];
+                listSizes[hole] = listSizes[next];
+                hole = next;
+            }
+        }
+        firstKeys[hole] = null;
+        secondKeys[hole] = null;
+        thirdKeys[hole] = null;
+        lists[hole] = null;
+        listSizes[hole] = 0;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Get the number of key triplets in the FlatTripleHashedList
+     *
+     * @return Returns the number of collision lists
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a list of the keys in the first axis of the FlatTripleHashedList (this scans the whole table)
+     *
+     * @return Returns a list of the distinct keys in the first key set
+     */
+    @SuppressWarnings("unchecked")
+    public List<K> getFirstKeySet() {
+        Set<K> keys = new LinkedHashSet<>();
+        for (int slot = 0; slot < lists.length; slot++)
+            if (lists[slot] != null)
+                keys.add((K) firstKeys[slot]);
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Get a list of the keys in the second axis of the FlatTripleHashedList that correspond to a first key
+     * (this scans the whole table)
+     *
+     * @param firstKey The first-axis key defining the second-axis key set to be gathered
+     * @return Returns a list of the distinct keys in the second-axis key set corresponding to the input key.
+     *         Returns null if there is no key triplet with the firstKey provided.
+     */
+    @SuppressWarnings("unchecked")
+    public List<S> getSecondKeySet(K firstKey) {
+        Set<S> keys = new LinkedHashSet<>();
+        for (int slot = 0; slot < lists.length; slot++)
+            if (lists[slot] != null && firstKeys[slot].equals(firstKey))
+                keys.add((S) secondKeys[slot]);
+        return keys.isEmpty() ? null : new ArrayList<>(keys);
+    }
+
+    /**
+     * Get a list of the keys for the third axis of the FlatTripleHashedList that correspond to the given
+     * firstKey and secondKey (this scans the whole table)
+     *
+     * @param firstKey  The first-axis key defining the specific plane in which to look for the second-axis key
+     * @param secondKey The second-axis key that defines the "line" from which to pull the third-axis keys
+     * @return Returns a list of the keys for the third-axis set corresponding to the provided first- and
+     *         second-axes provided. Returns null if there is no key triplet with the first and second keys
+     */
+    @SuppressWarnings("unchecked")
+    public List<U> getThirdKeySet(K firstKey, S secondKey) {
+        List<U> keys = new ArrayList<>();
+        for (int slot = 0; slot < lists.length; slot++)
+            if (lists[slot] != null && firstKeys[slot].equals(firstKey) && secondKeys[slot].equals(secondKey))
+                keys.add((U) thirdKeys[slot]);
+        return keys.isEmpty() ? null : keys;
+    }
+
+    /**
+     * Copy a collision list into a new list with the newest element first
+     *
+     * @param list  The stored entries, oldest first
+     * @param count The number of entries
+     * @return Returns the new list
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> List<V> newestFirst(Object[] list, int count) {
+        List<V> copy = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--)
+            copy.add((V) list[i]);
+        return copy;
+    }
+}
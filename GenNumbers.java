@@ -1,17 +1,101 @@
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Random;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.JumpableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
  * Generates a random list of numbers in an output file that
- * are system-newline separated.
+ * are system-newline separated (or fixed-width text, or raw binary values).
  *
  * @author <em>Zach Baldwin</em>
- * @version 2020.04.16
+ * @version 2026.10.18
  */
 public class GenNumbers {
 
+    /** The ways that the numbers can be written to the file */
+    enum OutputFormat {
+        /** Decimal integers, one per line */
+        TEXT(0, null),
+        /** Zero-padded decimal integers that all take the same number of bytes, one per line */
+        FIXED(0, null),
+        /** Raw 4 byte ints */
+        INT32_LE(Integer.BYTES, ByteOrder.LITTLE_ENDIAN),
+        INT32_BE(Integer.BYTES, ByteOrder.BIG_ENDIAN),
+        /** Raw 8 byte longs */
+        INT64_LE(Long.BYTES, ByteOrder.LITTLE_ENDIAN),
+        INT64_BE(Long.BYTES, ByteOrder.BIG_ENDIAN),
+        /** Raw 8 byte IEEE 754 doubles */
+        FLOAT64_LE(Double.BYTES, ByteOrder.LITTLE_ENDIAN),
+        FLOAT64_BE(Double.BYTES, ByteOrder.BIG_ENDIAN);
+
+        /** The number of bytes in each value of a binary format (0 for text) */
+        final int byteWidth;
+
+        /** The byte order of a binary format (null for text) */
+        final ByteOrder byteOrder;
+
+        /**
+         * Describe a format
+         *
+         * @param byteWidth The number of bytes in each value of a binary format (0 for text)
+         * @param byteOrder The byte order of a binary format (null for text)
+         */
+        OutputFormat(int byteWidth, ByteOrder byteOrder) {
+            this.byteWidth = byteWidth;
+            this.byteOrder = byteOrder;
+        }
+
+        /**
+         * Find a format by its command line name (e.g. "int32-le")
+         *
+         * @param name The name of the format
+         * @return Returns the format
+         * @throws IllegalArgumentException If there is no format with that name
+         */
+        static OutputFormat parse(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /** The jumpable generator algorithm that the numbers come from */
+    private static final String generatorName = "Xoshiro256PlusPlus";
+
+    /** The quantity of numbers in each chunk (each chunk has its own random stream, so this fixes the output for a seed) */
+    private static final int numbersPerChunk = 1 << 16;
+
+    /** The line separator written after every number */
+    private static final byte[] newline = System.lineSeparator().getBytes();
+
+    /** The most bytes that one text number (with its line separator) can take */
+    private static final int maxBytesPerNumber = Long.toString(Long.MIN_VALUE).length() + newline.length;
+
+    /** Handed to the writer of a stream in place of a chunk when a worker fails */
+    private static final ByteBuffer failedChunk = ByteBuffer.allocate(0);
+
+    /** The Zipf exponent used when none is given */
+    private static final double defaultZipfExponent = 1.0;
+
     /**
      * Generate the output file
      *
@@ -19,43 +103,736 @@ public class GenNumbers {
      */
     public static void main(String[] args) {
 
+        // Optional flags come before the number and filename
+        int threads = 1;
+        long seed = 0;
+        boolean seeded = false;
+        long firstIndex = 0;
+        OutputFormat format = OutputFormat.TEXT;
+        NumberDistribution.Shape shape = NumberDistribution.Shape.UNIFORM;
+        String range = null;
+        double zipfExponent = defaultZipfExponent;
+        long sequenceLength = 0;
+        boolean stream = false;
+        boolean printStats = false;
+        int argumentIndex = 0;
+        try {
+            while (argumentIndex < args.length && args[argumentIndex].startsWith("-")) {
+                switch (args[argumentIndex]) {
+                    case "-t":
+                    case "--threads":
+                        threads = Integer.parseInt(args[++argumentIndex]);
+                        break;
+                    case "-s":
+                    case "--seed":
+                        seed = Long.parseLong(args[++argumentIndex]);
+                        seeded = true;
+                        break;
+                    case "-o":
+                    case "--offset":
+                        firstIndex = Long.parseLong(args[++argumentIndex]);
+                        break;
+                    case "-f":
+                    case "--format":
+                        format = OutputFormat.parse(args[++argumentIndex]);
+                        break;
+                    case "-d":
+                    case "--distribution":
+                        shape = NumberDistribution.Shape.parse(args[++argumentIndex]);
+                        break;
+                    case "-r":
+                    case "--range":
+                        range = args[++argumentIndex];
+                        break;
+                    case "--zipf-exponent":
+                        zipfExponent = Double.parseDouble(args[++argumentIndex]);
+                        break;
+                    case "--total":
+                        sequenceLength = Long.parseLong(args[++argumentIndex]);
+                        break;
+                    case "--stream":
+                        stream = true;
+                        break;
+                    case "--stats":
+                        printStats = true;
+                        break;
+                    default:
+                        printUsage();
+                }
+                argumentIndex++;
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            printUsage();
+        }
+
         // Make sure that there are the correct number of arguments
-        if (args.length != 2 || args[0].equals("?") || args[0].toLowerCase().equals("h")) {
-            System.out.println(
-                    "Random Number File Filler Utility - Zach Baldwin April 2020\n" +
-                    "USAGE:\n" +
-                    "    $ java GenNumbers number filename\n\n" +
-                    "    number   - The quantity of random numbers to generate\n" +
-                    "    filename - The file to which the numbers will be stored\n");
-            System.exit(1);
+        if (args.length - argumentIndex != 2 || args[argumentIndex].equals("?")
+                || args[argumentIndex].toLowerCase().equals("h") || threads < 1 || firstIndex < 0) {
+            printUsage();
         }
 
         // CLI args
-        String numberQuantity = args[0];
-        String outputFilename = args[1];
+        String numberQuantity = args[argumentIndex];
+        String outputFilename = args[argumentIndex + 1];
+
+        // Pipes and stdout cannot take positional writes, so they are streamed (and stdout is kept clean of messages)
+        boolean toStdout = outputFilename.equals("-");
+        Path outputPath = toStdout ? null : Paths.get(outputFilename);
+        stream |= toStdout || (Files.exists(outputPath) && !Files.isRegularFile(outputPath));
+        PrintStream messages = toStdout ? System.err : System.out;
+
+        // Get the number of numbers to generate
+        long numberOfNumbers;
+        try {
+            numberOfNumbers = Long.parseLong(numberQuantity);
+        } catch (NumberFormatException e) {
+            messages.println("The value entered: \"" + numberQuantity + "\" is not a valid integer.");
+            return;
+        }
+
+        // The values to write
+        NumberDistribution distribution;
+        try {
+            distribution = createDistribution(format, shape, range, zipfExponent,
+                    sequenceLength > 0 ? sequenceLength : Math.max(1, firstIndex + numberOfNumbers));
+        } catch (IllegalArgumentException e) {
+            messages.println("The distribution is not valid: " + e.getMessage());
+            return;
+        }
 
         // Open the file and send a bunch of random numbers to it
         try {
-            // Get the number of numbers to generate
-            int numberOfNumbers = Integer.parseInt(numberQuantity);
+            // "Random" number generator (every chunk of the output jumps it ahead to its own stream)
+            RandomGeneratorFactory<JumpableGenerator> factory = RandomGeneratorFactory.of(generatorName);
+            JumpableGenerator numberGen = seeded ? factory.create(seed) : factory.create();
 
-            // Open the output file
-            BufferedWriter bufOut = new BufferedWriter(new FileWriter(outputFilename));
+            RunStats stats = printStats ? new RunStats("GenNumbers") : null;
+            ChunkPlan plan = new ChunkPlan(numberGen, distribution, format, firstIndex, numberOfNumbers, threads,
+                    stats);
 
-            // "Random" number generator
-            Random numberGen = new Random();
+            if (!stream) {
+                generateFile(plan, outputPath);
+                if (stats != null)
+                    System.err.println(stats.toJson());
+                return;
+            }
 
-            for (int i = 0; i < numberOfNumbers; i++) {
-                bufOut.write(Integer.toString(numberGen.nextInt()));
-                bufOut.newLine();
+            // Open the sink (a named pipe is not created or truncated)
+            WritableByteChannel output;
+            if (toStdout)
+                output = new FileOutputStream(FileDescriptor.out).getChannel();
+            else if (Files.isRegularFile(outputPath) || !Files.exists(outputPath))
+                output = FileChannel.open(outputPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            else
+                output = FileChannel.open(outputPath, StandardOpenOption.WRITE);
+
+            long startTime = System.nanoTime();
+            long bytesWritten;
+            try (WritableByteChannel sink = output) {
+                bytesWritten = generateStream(plan, sink);
             }
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            if (stats != null)
+                System.err.println(stats.toJson());
+            else
+                System.err.printf("Wrote %d numbers (%d bytes) in %.3f s: %.1f MB/s, %.0f numbers/s%n",
+                    numberOfNumbers, bytesWritten, seconds, bytesWritten / seconds / 1e6, numberOfNumbers / seconds);
+        } catch (IOException e) {
+            messages.println("A problem was encountered while accessing the output file.");
+        }
+    }
+
+    /**
+     * Prints the usage message and exits with an error (exit code 1)
+     */
+    private static void printUsage() {
+        System.out.println(
+                "Random Number File Filler Utility - Zach Baldwin April 2020\n" +
+                "USAGE:\n" +
+                "    $ java GenNumbers [options] number filename\n\n" +
+                "    number   - The quantity of random numbers to generate\n" +
+                "    filename - The file to which the numbers will be stored\n\n" +
+                "Options:\n" +
+                "    -t, --threads <count>  Generate with <count> threads, each writing its own regions of the file\n" +
+                "    -s, --seed <seed>      Seed the generator so that the same numbers are made every time\n" +
+                "                           (the output does not depend on the number of threads)\n" +
+                "    -o, --offset <index>   Start at the number with this index in the seeded sequence, so that a\n" +
+                "                           shard of a larger file can be made on its own\n" +
+                "    -f, --format <format>  text (default), fixed (zero-padded text, every line the same length),\n" +
+                "                           int32-le, int32-be, int64-le, int64-be, float64-le or float64-be\n" +
+                "                           (raw values with no header, ready to be memory-mapped)\n" +
+                "    -d, --distribution <shape>\n" +
+                "                           uniform (default), gaussian, zipf, sorted, reverse or nearly-sorted\n" +
+                "    -r, --range <min:max>  The range of the values (inclusive for integers, max exclusive for\n" +
+                "                           float64). Defaults to all ints, all longs for int64, 0:1 for float64\n" +
+                "    --zipf-exponent <s>    The exponent of the zipf distribution (default 1)\n" +
+                "    --total <count>        The length of the whole sequence that sorted shapes are spread over\n" +
+                "                           (default offset + number, set it when generating shards)\n" +
+                "    --stream               Write the file in order from one thread (while the other threads\n" +
+                "                           generate) and report the rate on stderr. Used automatically for a\n" +
+                "                           filename of - (stdout) and for named pipes\n" +
+                "    --stats                Print the rates, the time spent generating, formatting and writing,\n" +
+                "                           and the GC, allocation and peak heap of the run as JSON on stderr\n");
+        System.exit(1);
+    }
+
+    /**
+     * Set up the distribution of the values for a format
+     *
+     * @param format         The format that the values will be written in
+     * @param shape          The shape of the values
+     * @param range          The range of the values as "min:max" (or null for the default of the format)
+     * @param zipfExponent   The exponent of the zipf shape
+     * @param sequenceLength The number of values in the whole sequence
+     * @return Returns the distribution
+     * @throws IllegalArgumentException If the range is not valid for the format
+     */
+    private static NumberDistribution createDistribution(OutputFormat format, NumberDistribution.Shape shape,
+            String range, double zipfExponent, long sequenceLength) {
+
+        String[] bounds = range == null ? null : range.split(":");
+        if (bounds != null && bounds.length != 2)
+            throw new IllegalArgumentException("The range must be written as min:max");
+
+        switch (format) {
+            case FLOAT64_LE:
+            case FLOAT64_BE:
+                if (bounds == null)
+                    return new NumberDistribution(shape, 0.0, 1.0, zipfExponent, sequenceLength);
+                return new NumberDistribution(shape, Double.parseDouble(bounds[0]), Double.parseDouble(bounds[1]),
+                        zipfExponent, sequenceLength);
+            case INT64_LE:
+            case INT64_BE:
+                if (bounds == null)
+                    return new NumberDistribution(shape, Long.MIN_VALUE, Long.MAX_VALUE, zipfExponent, sequenceLength);
+                return new NumberDistribution(shape, Long.parseLong(bounds[0]), Long.parseLong(bounds[1]),
+                        zipfExponent, sequenceLength);
+            case INT32_LE:
+            case INT32_BE:
+                if (bounds == null)
+                    return new NumberDistribution(shape, (long) Integer.MIN_VALUE, Integer.MAX_VALUE, zipfExponent,
+                            sequenceLength);
+                return new NumberDistribution(shape, (long) Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]),
+                        zipfExponent, sequenceLength);
+            default:
+                if (bounds == null)
+                    return new NumberDistribution(shape, (long) Integer.MIN_VALUE, Integer.MAX_VALUE, zipfExponent,
+                            sequenceLength);
+                return new NumberDistribution(shape, Long.parseLong(bounds[0]), Long.parseLong(bounds[1]),
+                        zipfExponent, sequenceLength);
+        }
+    }
+
+    /**
+     * Generate a file on one or more threads. Every thread formats its chunks into its own byte buffer and
+     * writes that buffer to its region of the file with a positional write. The regions are handed out in
+     * chunk order, so the only thing the threads wait on each other for is learning where their next chunk
+     * starts.
+     *
+     * @param plan       The chunks to generate
+     * @param outputPath The file to which the numbers will be stored
+     * @throws IOException If the output file could not be written
+     */
+    private static void generateFile(ChunkPlan plan, Path outputPath) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(plan.threads);
+        try (FileChannel output = FileChannel.open(outputPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            List<Future<?>> results = new ArrayList<>();
+            for (int worker = 0; worker < plan.workerCount(); worker++) {
+                JumpableGenerator workerGen = plan.workerGenerator(worker);
+                long workerFirstChunk = worker;
+
+                results.add(workers.submit(() -> {
+                    try {
+                        long[] values = plan.allocateValues();
+                        ByteBuffer buffer = plan.allocateBuffer();
+                        for (long chunk = workerFirstChunk; chunk < plan.chunkCount; chunk += plan.threads) {
+                            plan.fillChunk(workerGen, chunk, values, buffer);
+
+                            // Waiting for the region counts as I/O, since it waits on the writes before it
+                            long writeStart = System.nanoTime();
+                            long length = buffer.remaining();
+                            writeFully(output, buffer, plan.claimRegion(chunk, length));
+                            plan.countWrite(length, System.nanoTime() - writeStart);
+                        }
+                    } catch (Throwable t) {
+                        plan.fail(t);
+                        throw t;
+                    } finally {
+                        plan.workerDone();
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> result : results)
+                result.get();
+        } catch (ExecutionException e) {
+            throw asIOException(plan.failure());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Generate numbers into a channel in order. Every thread fills its chunks into one of its two buffers
+     * while the calling thread writes the other one, so generating overlaps writing, and a slow channel stops
+     * the threads once both of their buffers are waiting (memory use does not depend on the count).
+     *
+     * @param plan   The chunks to generate
+     * @param output The channel to write the numbers to
+     * @return Returns the number of bytes written
+     * @throws IOException If the channel could not be written
+     */
+    private static long generateStream(ChunkPlan plan, WritableByteChannel output) throws IOException {
+        int workerCount = plan.workerCount();
+        List<BlockingQueue<ByteBuffer>> freeBuffers = new ArrayList<>(workerCount);
+        List<BlockingQueue<ByteBuffer>> filledBuffers = new ArrayList<>(workerCount);
+
+        ExecutorService workers = Executors.newFixedThreadPool(plan.threads);
+        try {
+            for (int worker = 0; worker < workerCount; worker++) {
+                BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(2);
+                BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(2);
+                free.add(plan.allocateBuffer());
+                free.add(plan.allocateBuffer());
+                freeBuffers.add(free);
+                filledBuffers.add(filled);
+
+                JumpableGenerator workerGen = plan.workerGenerator(worker);
+                long workerFirstChunk = worker;
+                workers.submit(() -> {
+                    try {
+                        long[] values = plan.allocateValues();
+                        for (long chunk = workerFirstChunk; chunk < plan.chunkCount; chunk += plan.threads) {
+                            ByteBuffer buffer = free.take();
+                            plan.fillChunk(workerGen, chunk, values, buffer);
+                            filled.put(buffer);
+                        }
+                    } catch (Throwable t) {
+                        // Wake up the writer (there is always room, since this worker holds one of its buffers)
+                        plan.fail(t);
+                        filled.offer(failedChunk);
+                    } finally {
+                        plan.workerDone();
+                    }
+                    return null;
+                });
+            }
+
+            // Write the chunks in order, taking turns between the workers
+            long bytesWritten = 0;
+            for (long chunk = 0; chunk < plan.chunkCount; chunk++) {
+                int worker = (int) (chunk % plan.threads);
+                ByteBuffer buffer = filledBuffers.get(worker).take();
+                if (buffer == failedChunk)
+                    throw asIOException(plan.failure());
+
+                long writeStart = System.nanoTime();
+                long length = buffer.remaining();
+                while (buffer.hasRemaining())
+                    output.write(buffer);
+                plan.countWrite(length, System.nanoTime() - writeStart);
+                bytesWritten += length;
+                freeBuffers.get(worker).put(buffer);
+            }
+            return bytesWritten;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Turn the failure of a worker into the IOException that it stands for
+     *
+     * @param failure The exception thrown by the worker
+     * @return Returns the IOException to throw
+     */
+    private static IOException asIOException(Throwable failure) {
+        if (failure instanceof UncheckedIOException)
+            return ((UncheckedIOException) failure).getCause();
+        if (failure instanceof IOException)
+            return (IOException) failure;
+        return new IOException(failure);
+    }
+
+    /**
+     * Draw a value and throw it away (to get to the start of a shard in the middle of a chunk)
+     *
+     * @param distribution The distribution of the values
+     * @param generator    The generator of the chunk
+     * @param index        The index of the value in the sequence
+     */
+    private static void skipValue(NumberDistribution distribution, RandomGenerator generator, long index) {
+        if (distribution.isIntegral())
+            distribution.nextLong(generator, index);
+        else
+            distribution.nextDouble(generator, index);
+    }
+
+    /**
+     * Generate a run of values (a floating point value is kept as its raw bits)
+     *
+     * @param distribution The distribution of the values
+     * @param generator    The generator of the chunk
+     * @param from         The index in the sequence of the first value
+     * @param to           The index in the sequence after the last value
+     * @param values       The array to put the values in (from index 0)
+     */
+    private static void generateValues(NumberDistribution distribution, RandomGenerator generator, long from,
+            long to, long[] values) {
+        int count = (int) (to - from);
+        if (distribution.isIntegral()) {
+            for (int i = 0; i < count; i++)
+                values[i] = distribution.nextLong(generator, from + i);
+        } else {
+            for (int i = 0; i < count; i++)
+                values[i] = Double.doubleToRawLongBits(distribution.nextDouble(generator, from + i));
+        }
+    }
 
-            // Close the output file
-            bufOut.close();
+    /**
+     * Write a run of generated values into a buffer
+     *
+     * @param distribution The distribution of the values
+     * @param format       The format to write the values in
+     * @param values       The values (a floating point value is its raw bits)
+     * @param count        The number of values
+     * @param buffer       The buffer to write to
+     */
+    private static void formatValues(NumberDistribution distribution, OutputFormat format, long[] values, int count,
+            ByteBuffer buffer) {
+        switch (format) {
+            case TEXT:
+                for (int i = 0; i < count; i++)
+                    formatNumber(values[i], buffer);
+                break;
+            case FIXED:
+                // Every line is as wide as the widest value in the range, with a sign if the range has negatives
+                boolean signed = distribution.min() < 0;
+                int width = Math.max(digitCount(distribution.min()), digitCount(distribution.max()));
+                for (int i = 0; i < count; i++)
+                    formatFixed(values[i], signed, width, buffer);
+                break;
+            case INT32_LE:
+            case INT32_BE:
+                for (int i = 0; i < count; i++)
+                    buffer.putInt((int) values[i]);
+                break;
+            default:
+                // The raw bits of a double are written the same way as a long
+                for (int i = 0; i < count; i++)
+                    buffer.putLong(values[i]);
+        }
+    }
+
+    /**
+     * Count the decimal digits of a number (not counting the sign)
+     *
+     * @param number The number to measure
+     * @return Returns the number of digits
+     */
+    private static int digitCount(long number) {
+        // Work with the negative value so that Long.MIN_VALUE does not overflow
+        long value = number < 0 ? number : -number;
+        int digitCount = 1;
+        for (long remaining = value / 10; remaining != 0; remaining /= 10)
+            digitCount++;
+        return digitCount;
+    }
+
+    /**
+     * Write the decimal digits of a number and a line separator into a buffer
+     *
+     * @param number The number to write
+     * @param buffer The buffer to write to (must have room for maxBytesPerNumber bytes)
+     */
+    private static void formatNumber(long number, ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        int position = buffer.position();
+
+        if (number < 0)
+            bytes[position++] = '-';
+        position = writeDigits(number, digitCount(number), bytes, position);
+
+        for (byte newlineByte : newline)
+            bytes[position++] = newlineByte;
+        buffer.position(position);
+    }
+
+    /**
+     * Write a number zero-padded to a fixed width and a line separator into a buffer
+     *
+     * @param number The number to write
+     * @param signed Whether to start with a sign ('-' or '+')
+     * @param width  The number of digits to write (at least the number of digits in the number)
+     * @param buffer The buffer to write to (must have room for maxBytesPerNumber bytes)
+     */
+    private static void formatFixed(long number, boolean signed, int width, ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        int position = buffer.position();
+
+        if (signed)
+            bytes[position++] = (byte) (number < 0 ? '-' : '+');
+        position = writeDigits(number, width, bytes, position);
+
+        for (byte newlineByte : newline)
+            bytes[position++] = newlineByte;
+        buffer.position(position);
+    }
+
+    /**
+     * Write the decimal digits of a number (without its sign) into an array, from the right
+     *
+     * @param number     The number to write
+     * @param digitCount The number of digits to write (extra digits are zeros)
+     * @param bytes      The array to write to
+     * @param position   The index of the first digit
+     * @return Returns the index after the last digit
+     */
+    private static int writeDigits(long number, int digitCount, byte[] bytes, int position) {
+        // Work with the negative value so that Long.MIN_VALUE does not overflow
+        long value = number < 0 ? number : -number;
+        for (int i = position + digitCount - 1; i >= position; i--) {
+            bytes[i] = (byte) ('0' - value % 10);
+            value /= 10;
+        }
+        return position + digitCount;
+    }
+
+    /**
+     * Write a whole buffer to a position in a file
+     *
+     * @param output   The file to write to
+     * @param buffer   The bytes to write
+     * @param position The file offset to write them at
+     * @throws UncheckedIOException If the file could not be written
+     */
+    private static void writeFully(FileChannel output, ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining())
+                position += output.write(buffer, position);
         } catch (IOException e) {
-            System.out.println("A problem was encountered while accessing the output file.");
-        } catch (NumberFormatException e) {
-            System.out.println("The value entered: \"" + numberQuantity + "\" is not a valid integer.");
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The chunks of one run: chunk k of the sequence takes its numbers from the generator after k jumps, so
+     * every chunk can be made on its own and the output does not depend on how many threads there are.
+     * Worker w makes chunks w, w + threads, w + 2 * threads and so on.
+     */
+    private static final class ChunkPlan {
+
+        /** The generator of the whole sequence */
+        final JumpableGenerator numberGen;
+
+        /** The distribution of the values */
+        final NumberDistribution distribution;
+
+        /** The format to write the values in */
+        final OutputFormat format;
+
+        /** The index in the sequence of the first number to write */
+        final long firstIndex;
+
+        /** The index in the sequence after the last number to write */
+        final long endIndex;
+
+        /** The index in the sequence of the chunk that the first number is in */
+        final long firstChunk;
+
+        /** The number of chunks to write */
+        final long chunkCount;
+
+        /** The number of threads to generate with */
+        final int threads;
+
+        /** The stats of the run (or null if they are not being collected) */
+        final RunStats stats;
+
+        /** The number of chunks that have been given a region of the file */
+        private long claimedChunks = 0;
+
+        /** The file offset after the last region that was handed out */
+        private long nextOffset = 0;
+
+        /** The first exception thrown by a worker (or null) */
+        private Throwable failure = null;
+
+        /**
+         * Plan a run
+         *
+         * @param numberGen       The generator of the whole sequence (it is not modified)
+         * @param distribution    The distribution of the values
+         * @param format          The format to write the values in
+         * @param firstIndex      The index in the sequence of the first number to write
+         * @param numberOfNumbers The quantity of random numbers to generate
+         * @param threads         The number of threads to generate with
+         * @param stats           The stats of the run (or null to not collect them)
+         */
+        ChunkPlan(JumpableGenerator numberGen, NumberDistribution distribution, OutputFormat format,
+                long firstIndex, long numberOfNumbers, int threads, RunStats stats) {
+            this.numberGen = numberGen;
+            this.distribution = distribution;
+            this.format = format;
+            this.firstIndex = firstIndex;
+            this.endIndex = firstIndex + Math.max(0, numberOfNumbers);
+            this.firstChunk = firstIndex / numbersPerChunk;
+            this.chunkCount = endIndex == firstIndex ? 0 : (endIndex - 1) / numbersPerChunk - firstChunk + 1;
+            this.threads = threads;
+            this.stats = stats;
+            if (stats != null)
+                stats.setThreads(threads);
+        }
+
+        /**
+         * Get the number of workers that have chunks to make
+         *
+         * @return Returns the number of workers to start
+         */
+        int workerCount() {
+            return (int) Math.min(threads, chunkCount);
+        }
+
+        /**
+         * Get a generator for a worker, moved to the stream of its first chunk
+         *
+         * @param worker The index of the worker
+         * @return Returns the worker's generator
+         */
+        JumpableGenerator workerGenerator(int worker) {
+            JumpableGenerator workerGen = numberGen.copy();
+            for (long jump = 0; jump < firstChunk + worker; jump++)
+                workerGen.jump();
+            return workerGen;
+        }
+
+        /**
+         * Allocate a buffer that can hold any chunk (a direct one for the binary formats)
+         *
+         * @return Returns the buffer
+         */
+        ByteBuffer allocateBuffer() {
+            if (format.byteOrder == null)
+                return ByteBuffer.allocate(numbersPerChunk * maxBytesPerNumber);
+            return ByteBuffer.allocateDirect(numbersPerChunk * format.byteWidth).order(format.byteOrder);
+        }
+
+        /**
+         * Allocate an array that can hold the values of any chunk
+         *
+         * @return Returns the array
+         */
+        long[] allocateValues() {
+            return new long[numbersPerChunk];
+        }
+
+        /**
+         * Generate a worker's next chunk into a buffer (ready to be written)
+         *
+         * @param workerGen The worker's generator (it is moved on to the worker's following chunk)
+         * @param chunk     The index of the chunk in this run
+         * @param values    The worker's array for the values of a chunk
+         * @param buffer    The buffer to fill
+         */
+        void fillChunk(JumpableGenerator workerGen, long chunk, long[] values, ByteBuffer buffer) {
+            long generateStart = System.nanoTime();
+            RandomGenerator chunkGen = workerGen.copyAndJump();
+            for (int jump = 1; jump < threads; jump++)
+                workerGen.jump();
+
+            // Only the first and last chunks can be cut short
+            long chunkStart = (firstChunk + chunk) * numbersPerChunk;
+            long from = Math.max(chunkStart, firstIndex);
+            long to = Math.min(chunkStart + numbersPerChunk, endIndex);
+            for (long skip = chunkStart; skip < from; skip++)
+                skipValue(distribution, chunkGen, skip);
+
+            generateValues(distribution, chunkGen, from, to, values);
+
+            long formatStart = System.nanoTime();
+            buffer.clear();
+            formatValues(distribution, format, values, (int) (to - from), buffer);
+            buffer.flip();
+
+            if (stats != null) {
+                stats.addGenerateNanos(formatStart - generateStart);
+                stats.addFormatNanos(System.nanoTime() - formatStart);
+                stats.addElements(to - from);
+            }
+        }
+
+        /**
+         * Count a chunk that was written
+         *
+         * @param length The number of bytes in the chunk
+         * @param nanos  The time it took to write the chunk
+         */
+        void countWrite(long length, long nanos) {
+            if (stats != null) {
+                stats.addBytes(length);
+                stats.addIoNanos(nanos);
+            }
+        }
+
+        /**
+         * Count the allocation of a worker thread that is finishing
+         */
+        void workerDone() {
+            if (stats != null)
+                stats.threadDone();
+        }
+
+        /**
+         * Get the region of the file for a chunk, right after the region of the previous chunk
+         *
+         * @param chunk  The index of the chunk in this run
+         * @param length The number of bytes in the chunk
+         * @return Returns the file offset to write the chunk at
+         * @throws InterruptedException If the thread was interrupted while waiting for the previous chunk
+         * @throws CancellationException If another worker failed
+         */
+        synchronized long claimRegion(long chunk, long length) throws InterruptedException {
+            while (claimedChunks != chunk) {
+                if (failure != null)
+                    throw new CancellationException("Another worker failed");
+                wait();
+            }
+
+            long start = nextOffset;
+            nextOffset += length;
+            claimedChunks++;
+            notifyAll();
+            return start;
+        }
+
+        /**
+         * Record that a worker failed (and wake up the workers waiting on it)
+         *
+         * @param cause The exception thrown by the worker
+         */
+        synchronized void fail(Throwable cause) {
+            if (failure == null)
+                failure = cause;
+            notifyAll();
+        }
+
+        /**
+         * Get the first exception thrown by a worker
+         *
+         * @return Returns the exception, or null if no worker has failed
+         */
+        synchronized Throwable failure() {
+            return failure;
         }
     }
 }
@@ -0,0 +1,267 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A zero-copy CSV scanner that memory-maps a file and walks its bytes directly.
+ * Each call to next() fills a reusable {@link CSVRecordView} with the (start, length) slices of the
+ * record's columns, so no Strings (or any other per-column objects) are created while scanning.
+ * The columns are split with the same quote rules as {@link CSVParser#parseLineDelimited(String, char)}
+ * and records end on an unquoted '\n' (a "\r\n" line ending is also accepted).<br>
+ * The file is mapped one window at a time so files larger than 2GB can be scanned, as long as no single
+ * record is larger than the window. The delimiter must be an ASCII character (the file is assumed to be
+ * ASCII-compatible, e.g. UTF-8).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class MappedCSVScanner implements Closeable {
+
+    /** The default delimiter that we are using for parsing the columns */
+    private static final char defaultDelimiter = ',';
+
+    /** The default number of bytes of the file to map at a time */
+    private static final int defaultWindowSize = 1 << 30;
+
+    /** The file being scanned */
+    private final FileChannel channel;
+
+    /** The size of the file being scanned */
+    private final long fileSize;
+
+    /** The delimiter that we are using for parsing the columns */
+    private final byte parsingDelimiter;
+
+    /** The maximum number of bytes of the file to map at a time */
+    private final int windowSize;
+
+    /** The engine that finds the columns of each record */
+    private final CSVRecordIndexer indexer;
+
+    /** The currently mapped part of the file */
+    private MappedByteBuffer window = null;
+
+    /** The file offset of the first byte of the window */
+    private long windowStart = 0;
+
+    /** The file offset of the record after the current one */
+    private long nextRecordOffset = 0;
+
+    /** The file offset of the current record */
+    private long recordOffset = -1;
+
+    /** The view of the current record */
+    private final CSVRecordView record = new CSVRecordView();
+
+    /**
+     * Open a file to be scanned using the default delimiter of ','
+     *
+     * @param file The CSV file to scan
+     * @throws IOException If the file could not be opened
+     */
+    public MappedCSVScanner(Path file) throws IOException {
+        this(file, defaultDelimiter, defaultWindowSize);
+    }
+
+    /**
+     * Open a file to be scanned using a custom delimiter
+     *
+     * @param file The CSV file to scan
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     * @throws IOException If the file could not be opened
+     */
+    public MappedCSVScanner(Path file, char parsingDelimiter) throws IOException {
+        this(file, parsingDelimiter, defaultWindowSize);
+    }
+
+    /**
+     * Open a file to be scanned using a custom delimiter and mapping window size
+     *
+     * @param file The CSV file to scan
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     * @param windowSize The maximum number of bytes to map at a time (also the largest allowed record)
+     * @throws IOException If the file could not be opened
+     */
+    public MappedCSVScanner(Path file, char parsingDelimiter, int windowSize) throws IOException {
+        this(file, parsingDelimiter, windowSize, CSVRecordIndexer.scalar());
+    }
+
+    /**
+     * Open a file to be scanned using a custom delimiter, mapping window size and indexing engine
+     *
+     * @param file The CSV file to scan
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     * @param windowSize The maximum number of bytes to map at a time (also the largest allowed record)
+     * @param indexer The engine that finds the columns of each record (e.g. {@link CSVRecordIndexer#vector()})
+     * @throws IOException If the file could not be opened
+     */
+    public MappedCSVScanner(Path file, char parsingDelimiter, int windowSize, CSVRecordIndexer indexer)
+            throws IOException {
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("The window size must be positive: " + windowSize);
+
+        this.parsingDelimiter = asciiDelimiter(parsingDelimiter);
+        this.windowSize = windowSize;
+        this.indexer = indexer;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+    }
+
+    /**
+     * Move to the next record in the file. The previous record's view is no longer valid after this.
+     *
+     * @return Returns true if there was another record, false at the end of the file
+     * @throws IOException If the file could not be mapped or a record is larger than the window
+     */
+    public boolean next() throws IOException {
+        if (nextRecordOffset >= fileSize)
+            return false;
+
+        while (true) {
+
+            // Make sure that the start of the record is mapped
+            if (window == null || nextRecordOffset >= windowStart + window.limit())
+                mapWindow(nextRecordOffset);
+
+            int position = (int) (nextRecordOffset - windowStart);
+            boolean windowReachesEnd = windowStart + window.limit() == fileSize;
+            int end = indexer.indexRecord(window, position, window.limit(), parsingDelimiter,
+                    windowReachesEnd, record);
+
+            if (end >= 0) {
+                recordOffset = nextRecordOffset;
+                nextRecordOffset = windowStart + end;
+                return true;
+            }
+
+            // The record runs off the end of the window, remap starting from the record
+            if (position == 0)
+                throw new IOException("Record at offset " + nextRecordOffset + " is larger than the "
+                        + windowSize + " byte mapping window");
+            mapWindow(nextRecordOffset);
+        }
+    }
+
+    /**
+     * Get the view of the current record
+     *
+     * @return Returns the record that the last call to next() moved to
+     */
+    public CSVRecordView record() {
+        return record;
+    }
+
+    /**
+     * Get the position of the current record in the file
+     *
+     * @return Returns the file offset of the first byte of the current record (-1 before the first record)
+     */
+    public long recordOffset() {
+        return recordOffset;
+    }
+
+    /**
+     * Close the file. Any views of the mapped data must not be used after this.
+     *
+     * @throws IOException If the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Find the columns of the record starting at a position in a buffer.
+     * The quote handling is the same as in {@link CSVParser#parseLineDelimited(String, char)}.
+     *
+     * @param buffer     The buffer holding the record
+     * @param position   The index of the first byte of the record
+     * @param limit      The index after the last byte that may be scanned
+     * @param delimiter  The delimiter to be used to separate columns
+     * @param endOfInput True if there is no more input after the limit (so the last record may not have a newline)
+     * @param record     The view to fill with the columns of the record
+     * @return Returns the index of the first byte after the record,
+     *         or -1 if the record does not end before the limit
+     */
+    static int indexRecord(ByteBuffer buffer, int position, int limit, byte delimiter,
+                           boolean endOfInput, CSVRecordView record) {
+
+        // Indicates that an odd number of quotes have been found
+        boolean quoteParity = false;
+
+        // The quotes in the current column (so that the view knows if it has to decode them)
+        int quoteCount = 0;
+
+        int fieldStart = position;
+        record.reset(buffer);
+
+        for (int i = position; i < limit; i++) {
+            byte currentByte = buffer.get(i);
+
+            if (currentByte == '\"') {
+                quoteParity = !quoteParity;
+                quoteCount++;
+            } else if (!quoteParity) {
+                if (currentByte == delimiter) {
+                    record.addField(fieldStart, i, quoteCount);
+                    fieldStart = i + 1;
+                    quoteCount = 0;
+                } else if (currentByte == '\n') {
+                    record.addField(fieldStart, lineContentEnd(buffer, fieldStart, i), quoteCount);
+                    return i + 1;
+                }
+            }
+        }
+
+        // No newline, this is only a record if nothing else can follow it
+        if (!endOfInput || position == limit)
+            return -1;
+
+        record.addField(fieldStart, lineContentEnd(buffer, fieldStart, limit), quoteCount);
+        return limit;
+    }
+
+    /**
+     * Check that a delimiter can be matched against single bytes
+     *
+     * @param parsingDelimiter The delimiter to be used to separate columns
+     * @return Returns the delimiter as a byte
+     * @throws IllegalArgumentException If the delimiter is a quote or not ASCII
+     */
+    static byte asciiDelimiter(char parsingDelimiter) {
+        if (parsingDelimiter >= 0x80 || parsingDelimiter == '\"' || parsingDelimiter == '\n')
+            throw new IllegalArgumentException("Invalid delimiter for byte scanning: '" + parsingDelimiter + "'");
+        return (byte) parsingDelimiter;
+    }
+
+    /**
+     * Drop the '\r' of a "\r\n" line ending from the end of the last column
+     *
+     * @param buffer     The buffer holding the record
+     * @param fieldStart The index of the first byte of the last column
+     * @param end        The index of the '\n' (or the end of the input)
+     * @return Returns the index after the last byte of the column's content
+     */
+    static int lineContentEnd(ByteBuffer buffer, int fieldStart, int end) {
+        if (end > fieldStart && buffer.get(end - 1) == '\r')
+            return end - 1;
+        return end;
+    }
+
+    /**
+     * Map the part of the file starting at an offset
+     *
+     * @param offset The file offset to start the window at
+     * @throws IOException If the file could not be mapped
+     */
+    private void mapWindow(long offset) throws IOException {
+        long size = Math.min(windowSize, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+    }
+}
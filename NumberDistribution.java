@@ -0,0 +1,374 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The shape of the values that {@link GenNumbers} generates. Every value is worked out from a random
+ * generator and the index of the value in the whole sequence, so any chunk of the sequence can be made on
+ * its own (the sorted shapes use the index instead of sorting anything).<br>
+ * A distribution is either integral (use nextLong, the range is inclusive) or floating point
+ * (use nextDouble, the range is [low, high)).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class NumberDistribution {
+
+    /** The shapes that the values can have */
+    public enum Shape {
+        /** Every value in the range is equally likely */
+        UNIFORM,
+        /** A bell curve centered in the range, with the range 3 standard deviations to each side (clamped) */
+        GAUSSIAN,
+        /** The value at rank k (from the bottom of the range) has weight 1/k^exponent */
+        ZIPF,
+        /** Spread evenly over the range in increasing order */
+        SORTED,
+        /** Spread evenly over the range in decreasing order */
+        REVERSE,
+        /** Sorted, except that about 1 in 100 values is a uniform value from anywhere in the range */
+        NEARLY_SORTED;
+
+        /**
+         * Find a shape by its command line name (e.g. "nearly-sorted")
+         *
+         * @param name The name of the shape
+         * @return Returns the shape
+         * @throws IllegalArgumentException If there is no shape with that name
+         */
+        public static Shape parse(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /** The chance that a value of a NEARLY_SORTED sequence is out of place */
+    private static final double nearlySortedDisorder = 0.01;
+
+    /** The shape of the values */
+    private final Shape shape;
+
+    /** Whether the values are integers */
+    private final boolean integral;
+
+    /** The smallest integer value (inclusive) */
+    private final long min;
+
+    /** The largest integer value (inclusive) */
+    private final long max;
+
+    /** The smallest floating point value (inclusive) */
+    private final double low;
+
+    /** The largest floating point value (exclusive) */
+    private final double high;
+
+    /** The number of values in the whole sequence (used to spread out the sorted shapes) */
+    private final long sequenceLength;
+
+    /** The sampler of ranks for the ZIPF shape (or null) */
+    private final ZipfSampler zipf;
+
+    /**
+     * Create a distribution of integers
+     *
+     * @param shape          The shape of the values
+     * @param min            The smallest value (inclusive)
+     * @param max            The largest value (inclusive)
+     * @param zipfExponent   The exponent of the ZIPF shape (must be positive, ignored by the other shapes)
+     * @param sequenceLength The number of values in the whole sequence
+     * @throws IllegalArgumentException If the range is empty or the parameters are out of range
+     */
+    public NumberDistribution(Shape shape, long min, long max, double zipfExponent, long sequenceLength) {
+        this(shape, true, min, max, min, max, zipfExponent, sequenceLength);
+        if (min > max)
+            throw new IllegalArgumentException("The range is empty: " + min + ":" + max);
+    }
+
+    /**
+     * Create a distribution of floating point numbers
+     *
+     * @param shape          The shape of the values
+     * @param low            The smallest value (inclusive)
+     * @param high           The largest value (exclusive)
+     * @param zipfExponent   The exponent of the ZIPF shape (must be positive, ignored by the other shapes)
+     * @param sequenceLength The number of values in the whole sequence
+     * @throws IllegalArgumentException If the range is empty or the parameters are out of range
+     */
+    public NumberDistribution(Shape shape, double low, double high, double zipfExponent, long sequenceLength) {
+        this(shape, false, (long) Math.floor(low), (long) Math.ceil(high) - 1, low, high, zipfExponent,
+                sequenceLength);
+        if (!(low < high) || Double.isInfinite(high - low))
+            throw new IllegalArgumentException("The range is empty or not finite: " + low + ":" + high);
+    }
+
+    /**
+     * Create a distribution
+     *
+     * @param shape          The shape of the values
+     * @param integral       Whether the values are integers
+     * @param min            The smallest integer value (inclusive)
+     * @param max            The largest integer value (inclusive)
+     * @param low            The smallest floating point value (inclusive)
+     * @param high           The largest floating point value (exclusive)
+     * @param zipfExponent   The exponent of the ZIPF shape
+     * @param sequenceLength The number of values in the whole sequence
+     */
+    private NumberDistribution(Shape shape, boolean integral, long min, long max, double low, double high,
+            double zipfExponent, long sequenceLength) {
+        if (sequenceLength < 1)
+            throw new IllegalArgumentException("The sequence length must be positive: " + sequenceLength);
+
+        this.shape = shape;
+        this.integral = integral;
+        this.min = min;
+        this.max = max;
+        this.low = low;
+        this.high = high;
+        this.sequenceLength = sequenceLength;
+
+        // Every integer of the range is a rank (a floating point range gets one rank per whole unit)
+        if (shape == Shape.ZIPF) {
+            long ranks = max - min + 1;
+            this.zipf = new ZipfSampler(ranks <= 0 ? Long.MAX_VALUE : Math.max(1, ranks), zipfExponent);
+        } else {
+            this.zipf = null;
+        }
+    }
+
+    /**
+     * Get the shape of the values
+     *
+     * @return Returns the shape
+     */
+    public Shape shape() {
+        return shape;
+    }
+
+    /**
+     * Check if the values are integers
+     *
+     * @return Returns true if nextLong should be used, false if nextDouble should be used
+     */
+    public boolean isIntegral() {
+        return integral;
+    }
+
+    /**
+     * Get the smallest integer value
+     *
+     * @return Returns the bottom of the range (inclusive)
+     */
+    public long min() {
+        return min;
+    }
+
+    /**
+     * Get the largest integer value
+     *
+     * @return Returns the top of the range (inclusive)
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Get the integer value at an index of the sequence
+     *
+     * @param generator The random generator of the chunk that the index is in
+     * @param index     The index of the value in the whole sequence
+     * @return Returns the value
+     */
+    public long nextLong(RandomGenerator generator, long index) {
+        switch (shape) {
+            case GAUSSIAN:
+                double mean = min / 2.0 + max / 2.0;
+                double value = mean + (max / 2.0 - min / 2.0) / 3 * generator.nextGaussian();
+                return clamp(Math.round(value));
+            case ZIPF:
+                return min + zipf.sample(generator) - 1;
+            case SORTED:
+                return sortedLong(index);
+            case REVERSE:
+                return sortedLong(sequenceLength - 1 - index);
+            case NEARLY_SORTED:
+                return generator.nextDouble() < nearlySortedDisorder ? uniformLong(generator) : sortedLong(index);
+            default:
+                return uniformLong(generator);
+        }
+    }
+
+    /**
+     * Get the floating point value at an index of the sequence
+     *
+     * @param generator The random generator of the chunk that the index is in
+     * @param index     The index of the value in the whole sequence
+     * @return Returns the value
+     */
+    public double nextDouble(RandomGenerator generator, long index) {
+        switch (shape) {
+            case GAUSSIAN:
+                double value = (low + high) / 2 + (high - low) / 6 * generator.nextGaussian();
+                return Math.max(low, Math.min(Math.nextDown(high), value));
+            case ZIPF:
+                return Math.min(Math.nextDown(high), low + zipf.sample(generator) - 1);
+            case SORTED:
+                return sortedDouble(index);
+            case REVERSE:
+                return sortedDouble(sequenceLength - 1 - index);
+            case NEARLY_SORTED:
+                return generator.nextDouble() < nearlySortedDisorder ? generator.nextDouble(low, high)
+                        : sortedDouble(index);
+            default:
+                return generator.nextDouble(low, high);
+        }
+    }
+
+    /**
+     * Get a uniform integer from the range
+     *
+     * @param generator The random generator to use
+     * @return Returns the value
+     */
+    private long uniformLong(RandomGenerator generator) {
+        // The full int range keeps the plain nextInt() stream that GenNumbers has always written
+        if (min == Integer.MIN_VALUE && max == Integer.MAX_VALUE)
+            return generator.nextInt();
+        if (max < Long.MAX_VALUE)
+            return generator.nextLong(min, max + 1);
+        if (min > Long.MIN_VALUE)
+            return generator.nextLong(min - 1, max) + 1;
+        return generator.nextLong();
+    }
+
+    /**
+     * Get the integer at an index of an increasing sequence spread over the range
+     *
+     * @param index The index of the value in the whole sequence
+     * @return Returns the value
+     */
+    private long sortedLong(long index) {
+        double span = (double) max - min + 1;
+        return clamp(min + (long) Math.floor(index / (double) sequenceLength * span));
+    }
+
+    /**
+     * Get the floating point number at an index of an increasing sequence spread over the range
+     *
+     * @param index The index of the value in the whole sequence
+     * @return Returns the value
+     */
+    private double sortedDouble(long index) {
+        return Math.min(Math.nextDown(high), low + index / (double) sequenceLength * (high - low));
+    }
+
+    /**
+     * Limit an integer to the range
+     *
+     * @param value The value to limit
+     * @return Returns the closest value in the range
+     */
+    private long clamp(long value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Samples ranks 1..n with weights 1/k^exponent by rejection-inversion (W. Hormann and G. Derflinger,
+     * "Rejection-inversion to generate variates from monotone discrete distributions", 1996).<br>
+     * Rank k owns the interval [k - 1/2, k + 1/2) under the curve w(x) = x^-exponent, except rank 1, which owns
+     * an interval of area exactly w(1). A point is picked uniformly by area with the closed-form inverse of the
+     * area function A(x), rounded to the nearest rank, and kept if it is under the rank's true weight. Since w is
+     * convex almost every point is kept, so a sample costs about one uniform number for any n, with no tables.
+     */
+    private static final class ZipfSampler {
+
+        /** The number of ranks */
+        private final long ranks;
+
+        /** The exponent of the weights */
+        private final double exponent;
+
+        /** 1 - exponent, the power in the area function */
+        private final double areaPower;
+
+        /** The area coordinate where rank 1 starts: A(1.5) - w(1) */
+        private final double firstArea;
+
+        /** The area coordinate where rank n ends: A(n + 0.5) */
+        private final double lastArea;
+
+        /** Points at most this far below their rank are under the weight without checking */
+        private final double squeeze;
+
+        /**
+         * Set up a sampler
+         *
+         * @param ranks    The number of ranks
+         * @param exponent The exponent of the weights (must be positive)
+         */
+        ZipfSampler(long ranks, double exponent) {
+            if (!(exponent > 0))
+                throw new IllegalArgumentException("The Zipf exponent must be positive: " + exponent);
+
+            this.ranks = ranks;
+            this.exponent = exponent;
+            this.areaPower = 1 - exponent;
+            this.firstArea = area(1.5) - 1;
+            this.lastArea = area(ranks + 0.5);
+
+            // Rank 2 is the narrowest fit of the hat, so its margin holds for every rank above it
+            this.squeeze = 2 - inverseArea(area(2.5) - weight(2));
+        }
+
+        /**
+         * Get a rank
+         *
+         * @param generator The random generator to use
+         * @return Returns a rank from 1 to n
+         */
+        long sample(RandomGenerator generator) {
+            while (true) {
+                double position = lastArea + generator.nextDouble() * (firstArea - lastArea);
+                double x = inverseArea(position);
+                long rank = Math.max(1, Math.min(ranks, Math.round(x)));
+
+                // Accept right away inside the squeeze, otherwise check that the point is under w(rank)
+                if (rank - x <= squeeze || position >= area(rank + 0.5) - weight(rank))
+                    return rank;
+            }
+        }
+
+        /**
+         * The weight curve w(x) = x^-exponent
+         *
+         * @param x The point to evaluate
+         * @return Returns the weight at x
+         */
+        private double weight(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        /**
+         * The area function A(x) = (x^(1 - exponent) - 1) / (1 - exponent), the integral of w from 1 to x
+         * (log(x) when the exponent is 1)
+         *
+         * @param x The point to integrate up to
+         * @return Returns the area
+         */
+        private double area(double x) {
+            double logX = Math.log(x);
+            // expm1(p log x) / p stays accurate as p goes to 0, so only p == 0 needs its own case
+            return areaPower == 0 ? logX : Math.expm1(areaPower * logX) / areaPower;
+        }
+
+        /**
+         * The inverse of the area function
+         *
+         * @param area The area
+         * @return Returns the point x where A(x) is that area
+         */
+        private double inverseArea(double area) {
+            if (areaPower == 0)
+                return Math.exp(area);
+            // 1 + p * area is x^p, which is never negative, but the area can be rounded a little past -1/p
+            return Math.exp(Math.log1p(Math.max(-1, areaPower * area)) / areaPower);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Parses one large CSV file on many cores at once.
+ * The file is split into byte ranges, and every range is moved forward to the next safe record boundary
+ * (an unquoted newline) before the ranges are parsed on a fork-join pool with the same rules as
+ * {@link MappedCSVScanner}. Finding the boundaries takes the quote state into account: the number of quotes
+ * in every range is counted first (in parallel), so the quote parity at the start of each range is known
+ * exactly and a quoted newline is never mistaken for the end of a record.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class ParallelCSVParser {
+
+    /** The default delimiter that we are using for parsing the columns */
+    private static final char defaultDelimiter = ',';
+
+    /** The smallest byte range worth handing to a worker */
+    private static final long minimumChunkSize = 1L << 20;
+
+    /** The largest byte range handed to a worker (keeps the amount of parsed-but-undelivered data small) */
+    private static final long maximumChunkSize = 1L << 26;
+
+    /** The number of ranges per worker thread (so that uneven ranges still keep every core busy) */
+    private static final int chunksPerThread = 4;
+
+    /** The pool that parses the ranges */
+    private final ForkJoinPool pool;
+
+    /** The delimiter that we are using for parsing the columns */
+    private final byte parsingDelimiter;
+
+    /** The engine that finds the columns of each record */
+    private final CSVRecordIndexer indexer;
+
+    /**
+     * Create a parallel parser that runs on the common fork-join pool and uses the default delimiter of ','
+     */
+    public ParallelCSVParser() {
+        this(ForkJoinPool.commonPool(), defaultDelimiter);
+    }
+
+    /**
+     * Create a parallel parser that runs on a specific pool and uses a custom delimiter
+     *
+     * @param pool The pool to parse the file on (its parallelism sets the number of threads used)
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     */
+    public ParallelCSVParser(ForkJoinPool pool, char parsingDelimiter) {
+        this(pool, parsingDelimiter, CSVRecordIndexer.scalar());
+    }
+
+    /**
+     * Create a parallel parser that runs on a specific pool and uses a custom delimiter and indexing engine
+     *
+     * @param pool The pool to parse the file on (its parallelism sets the number of threads used)
+     * @param parsingDelimiter The delimiter to be used to separate columns (must be ASCII and not a quote)
+     * @param indexer The engine that finds the columns of each record (e.g. {@link CSVRecordIndexer#vector()})
+     */
+    public ParallelCSVParser(ForkJoinPool pool, char parsingDelimiter, CSVRecordIndexer indexer) {
+        this.pool = pool;
+        this.parsingDelimiter = MappedCSVScanner.asciiDelimiter(parsingDelimiter);
+        this.indexer = indexer;
+    }
+
+    /**
+     * Parse a file and hand every record to an action without building any Strings.<br>
+     * <b>Note:</b> the records are passed in no particular order and the action is called from many
+     * threads at once, so it must be thread-safe. Each view is only valid during the call.
+     *
+     * @param file   The CSV file to parse
+     * @param action The action to run on every record
+     * @throws IOException If the file could not be read
+     */
+    public void forEachRecord(Path file, Consumer<CSVRecordView> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] chunkStarts = findChunkStarts(channel);
+
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < chunkStarts.length - 1; i++) {
+                long start = chunkStarts[i];
+                long end = chunkStarts[i + 1];
+                tasks.add(pool.submit(() -> parseChunk(channel, start, end, action)));
+            }
+            joinAll(tasks);
+        }
+    }
+
+    /**
+     * Parse a file and hand every record to an action as an array of Strings
+     *
+     * @param file    The CSV file to parse
+     * @param ordered True to get the records in file order (on the calling thread),
+     *                false to get them as soon as they are parsed (from many threads at once)
+     * @param action  The action to run on every record (must be thread-safe if the records are not ordered)
+     * @throws IOException If the file could not be read
+     */
+    public void forEach(Path file, boolean ordered, Consumer<String[]> action) throws IOException {
+        if (!ordered) {
+            forEachRecord(file, record -> action.accept(record.toArray()));
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] chunkStarts = findChunkStarts(channel);
+
+            // Keep a bounded number of ranges in flight and hand their records over in order
+            int maximumInFlight = pool.getParallelism() * 2;
+            ArrayDeque<ForkJoinTask<List<String[]>>> inFlight = new ArrayDeque<>();
+            int nextChunk = 0;
+            while (nextChunk < chunkStarts.length - 1 || !inFlight.isEmpty()) {
+                while (nextChunk < chunkStarts.length - 1 && inFlight.size() < maximumInFlight) {
+                    long start = chunkStarts[nextChunk];
+                    long end = chunkStarts[nextChunk + 1];
+                    inFlight.addLast(pool.submit(() -> {
+                        List<String[]> records = new ArrayList<>();
+                        parseChunk(channel, start, end, record -> records.add(record.toArray()));
+                        return records;
+                    }));
+                    nextChunk++;
+                }
+
+                for (String[] record : join(inFlight.removeFirst()))
+                    action.accept(record);
+            }
+        }
+    }
+
+    /**
+     * Parse a whole file into a list of records
+     *
+     * @param file The CSV file to parse
+     * @return Returns the records of the file (in file order)
+     * @throws IOException If the file could not be read
+     */
+    public List<String[]> parse(Path file) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        forEach(file, true, records::add);
+        return records;
+    }
+
+    /**
+     * Split a file into ranges that each start on a record boundary
+     *
+     * @param channel The file to split
+     * @return Returns the file offsets of the start of each range, followed by the size of the file
+     * @throws IOException If the file could not be read
+     */
+    private long[] findChunkStarts(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        long chunkSize = Math.max(minimumChunkSize,
+                Math.min(maximumChunkSize, fileSize / ((long) pool.getParallelism() * chunksPerThread)));
+        int rangeCount = (int) Math.max(1, (fileSize + chunkSize - 1) / chunkSize);
+
+        // Pass 1: count the quotes in each range so that we know whether each range starts inside of quotes
+        List<ForkJoinTask<Boolean>> parityTasks = new ArrayList<>();
+        for (int i = 0; i < rangeCount - 1; i++) {
+            long start = i * chunkSize;
+            parityTasks.add(pool.submit(() -> hasOddQuoteCount(channel, start, chunkSize)));
+        }
+        boolean[] startsInQuotes = new boolean[rangeCount];
+        for (int i = 1; i < rangeCount; i++)
+            startsInQuotes[i] = startsInQuotes[i - 1] ^ join(parityTasks.get(i - 1));
+
+        // Pass 2: move the start of every range to just after its first unquoted newline
+        List<ForkJoinTask<Long>> boundaryTasks = new ArrayList<>();
+        for (int i = 1; i < rangeCount; i++) {
+            long start = i * chunkSize;
+            long size = Math.min(chunkSize, fileSize - start);
+            boolean inQuotes = startsInQuotes[i];
+            boundaryTasks.add(pool.submit(() -> findRecordBoundary(channel, start, size, inQuotes)));
+        }
+
+        // Ranges without a boundary (one record covering the whole range) are merged into the previous range
+        long[] chunkStarts = new long[rangeCount + 1];
+        int chunkCount = 1;
+        for (ForkJoinTask<Long> task : boundaryTasks) {
+            long boundary = join(task);
+            if (boundary >= 0 && boundary < fileSize)
+                chunkStarts[chunkCount++] = boundary;
+        }
+        chunkStarts[chunkCount] = fileSize;
+
+        long[] starts = new long[chunkCount + 1];
+        System.arraycopy(chunkStarts, 0, starts, 0, chunkCount + 1);
+        return starts;
+    }
+
+    /**
+     * Check if a range of the file holds an odd number of quotes
+     *
+     * @param channel The file to read
+     * @param start   The file offset of the range
+     * @param size    The number of bytes in the range
+     * @return Returns true if the number of quotes is odd
+     */
+    private static boolean hasOddQuoteCount(FileChannel channel, long start, long size) {
+        MappedByteBuffer buffer = map(channel, start, size);
+        int quotes = 0;
+        for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+            if (buffer.get(i) == '\"')
+                quotes++;
+        }
+        return (quotes & 1) != 0;
+    }
+
+    /**
+     * Find the first record boundary in a range of the file
+     *
+     * @param channel  The file to read
+     * @param start    The file offset of the range
+     * @param size     The number of bytes in the range
+     * @param inQuotes True if an odd number of quotes come before the range
+     * @return Returns the file offset after the first unquoted newline, or -1 if there is none in the range
+     */
+    private static long findRecordBoundary(FileChannel channel, long start, long size, boolean inQuotes) {
+        MappedByteBuffer buffer = map(channel, start, size);
+        boolean quoteParity = inQuotes;
+        for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+            byte currentByte = buffer.get(i);
+            if (currentByte == '\"')
+                quoteParity = !quoteParity;
+            else if (currentByte == '\n' && !quoteParity)
+                return start + i + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Parse the records in a range of the file that starts and ends on record boundaries
+     *
+     * @param channel The file to read
+     * @param start   The file offset of the first record
+     * @param end     The file offset after the last record
+     * @param action  The action to run on every record
+     */
+    private void parseChunk(FileChannel channel, long start, long end, Consumer<CSVRecordView> action) {
+        if (end - start > Integer.MAX_VALUE)
+            throw new UncheckedIOException(new IOException("Record at offset " + start + " is too large to map"));
+
+        MappedByteBuffer buffer = map(channel, start, end - start);
+        CSVRecordView record = new CSVRecordView();
+        int position = 0;
+        int limit = buffer.limit();
+        while (position < limit) {
+            position = indexer.indexRecord(buffer, position, limit, parsingDelimiter, true, record);
+            action.accept(record);
+        }
+    }
+
+    /**
+     * Map a read-only range of a file
+     *
+     * @param channel The file to map
+     * @param start   The file offset of the range
+     * @param size    The number of bytes in the range
+     * @return Returns the mapped range
+     * @throws UncheckedIOException If the file could not be mapped
+     */
+    private static MappedByteBuffer map(FileChannel channel, long start, long size) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Wait for a list of tasks to finish
+     *
+     * @param tasks The tasks to wait for
+     * @throws IOException If any of the tasks failed to read the file
+     */
+    private static void joinAll(List<ForkJoinTask<?>> tasks) throws IOException {
+        for (ForkJoinTask<?> task : tasks)
+            join(task);
+    }
+
+    /**
+     * Wait for a task to finish and get its result, turning read errors back into IOExceptions
+     *
+     * @param task The task to wait for
+     * @return Returns the result of the task
+     * @throws IOException If the task failed to read the file
+     */
+    private static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
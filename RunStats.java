@@ -0,0 +1,247 @@
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Collects the numbers of a run of one of the generators (FizzBuzz, GenNumbers) and reports them as one line
+ * of JSON: elements and bytes per second, the time spent generating values, formatting them and doing I/O
+ * (summed over all of the threads), and the garbage collections, allocation and peak heap of the run (read
+ * from the JMX MXBeans).<br>
+ * The heap only grows between collections, so its peak is the largest of the heap in use just before each
+ * collection (from the collectors' notifications) and the heap in use at the end.<br>
+ * The counters can be added to from any thread. Every worker thread should call threadDone() as it finishes
+ * so that its allocation is counted (the thread that created the stats is counted by toJson()).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class RunStats {
+
+    /** The name of the tool that ran */
+    private final String tool;
+
+    /** The time that the run started at */
+    private final long startNanos = System.nanoTime();
+
+    /** The thread that created the stats */
+    private final Thread mainThread = Thread.currentThread();
+
+    /** The bytes that the main thread had allocated before the run (or -1 if it cannot be measured) */
+    private final long mainThreadStartAllocation;
+
+    /** The number of collections before the run */
+    private final long startGcCount;
+
+    /** The milliseconds spent collecting before the run */
+    private final long startGcMillis;
+
+    /** The number of elements (numbers) generated */
+    private final LongAdder elements = new LongAdder();
+
+    /** The number of bytes written */
+    private final LongAdder bytes = new LongAdder();
+
+    /** The time spent generating values */
+    private final LongAdder generateNanos = new LongAdder();
+
+    /** The time spent formatting values */
+    private final LongAdder formatNanos = new LongAdder();
+
+    /** The time spent writing output (including waiting on the output) */
+    private final LongAdder ioNanos = new LongAdder();
+
+    /** The bytes allocated by the worker threads */
+    private final LongAdder workerAllocation = new LongAdder();
+
+    /** The number of threads that did the work */
+    private int threads = 1;
+
+    /** The most heap in use at once that has been seen */
+    private final LongAccumulator peakHeap = new LongAccumulator(Math::max, 0);
+
+    /** Records the heap in use before each collection */
+    private final NotificationListener collectionListener = (notification, handback) -> {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+            recordCollection(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+    };
+
+    /** The names of the heap memory pools */
+    private final Set<String> heapPools = new HashSet<>();
+
+    /**
+     * Start measuring a run (the peak heap usage is taken from now on)
+     *
+     * @param tool The name of the tool that is running
+     */
+    public RunStats(String tool) {
+        this.tool = tool;
+        this.mainThreadStartAllocation = currentThreadAllocation();
+
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        this.startGcCount = gcCount;
+        this.startGcMillis = gcMillis;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP)
+                heapPools.add(pool.getName());
+        }
+        peakHeap.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter)
+                ((NotificationEmitter) collector).addNotificationListener(collectionListener, null, null);
+        }
+    }
+
+    /**
+     * Count the heap that was in use just before a collection towards the peak
+     *
+     * @param collection The collection that happened
+     */
+    private void recordCollection(GarbageCollectionNotificationInfo collection) {
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> pool : collection.getGcInfo().getMemoryUsageBeforeGc().entrySet()) {
+            if (heapPools.contains(pool.getKey()))
+                used += pool.getValue().getUsed();
+        }
+        peakHeap.accumulate(used);
+    }
+
+    /**
+     * Set the number of threads that did the work
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Count generated elements
+     *
+     * @param count The number of elements
+     */
+    public void addElements(long count) {
+        elements.add(count);
+    }
+
+    /**
+     * Count written bytes
+     *
+     * @param count The number of bytes
+     */
+    public void addBytes(long count) {
+        bytes.add(count);
+    }
+
+    /**
+     * Count time spent generating values
+     *
+     * @param nanos The time in nanoseconds
+     */
+    public void addGenerateNanos(long nanos) {
+        generateNanos.add(nanos);
+    }
+
+    /**
+     * Count time spent formatting values
+     *
+     * @param nanos The time in nanoseconds
+     */
+    public void addFormatNanos(long nanos) {
+        formatNanos.add(nanos);
+    }
+
+    /**
+     * Count time spent writing output
+     *
+     * @param nanos The time in nanoseconds
+     */
+    public void addIoNanos(long nanos) {
+        ioNanos.add(nanos);
+    }
+
+    /**
+     * Count everything that the calling worker thread has allocated (call it once, as the thread finishes)
+     */
+    public void threadDone() {
+        if (Thread.currentThread() != mainThread)
+            workerAllocation.add(Math.max(0, currentThreadAllocation()));
+    }
+
+    /**
+     * Finish measuring and describe the run
+     *
+     * @return Returns the stats as one line of JSON
+     */
+    public String toJson() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+
+        // Stop listening, and count the heap in use at the end
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(collectionListener);
+                } catch (ListenerNotFoundException e) {
+                    // Already removed by an earlier call
+                }
+            }
+        }
+        peakHeap.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+
+        // Allocation is only known on JVMs with com.sun.management
+        long mainThreadAllocation = currentThreadAllocation();
+        long allocated = mainThreadStartAllocation < 0 || mainThreadAllocation < 0 ? -1
+                : mainThreadAllocation - mainThreadStartAllocation + workerAllocation.sum();
+
+        return String.format(Locale.ROOT,
+                "{\"tool\":\"%s\",\"threads\":%d,\"seconds\":%.6f,\"elements\":%d,\"bytes\":%d," +
+                "\"elementsPerSecond\":%.1f,\"bytesPerSecond\":%.1f," +
+                "\"generateNanos\":%d,\"formatNanos\":%d,\"ioNanos\":%d," +
+                "\"gcCount\":%d,\"gcMillis\":%d,\"allocatedBytes\":%d,\"peakHeapBytes\":%d}",
+                tool, threads, seconds, elements.sum(), bytes.sum(),
+                elements.sum() / seconds, bytes.sum() / seconds,
+                generateNanos.sum(), formatNanos.sum(), ioNanos.sum(),
+                gcCount - startGcCount, gcMillis - startGcMillis, allocated, peakHeap.get());
+    }
+
+    /**
+     * Get the number of bytes that the calling thread has allocated
+     *
+     * @return Returns the number of bytes, or -1 if it cannot be measured
+     */
+    private static long currentThreadAllocation() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+            if (sunThreadBean.isThreadAllocatedMemorySupported() && sunThreadBean.isThreadAllocatedMemoryEnabled())
+                return sunThreadBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,227 @@
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the entries of a TrigTableGenerator table a block at a time. Entry n is f(x(n)) with
+ * x(n) = n * (stop - start) / steps, the same grid that TrigTableGenerator has always used, so the entries are
+ * the same whichever way they are computed.<br>
+ * The entries of a block are independent, so they are spread over the cores with a parallel IntStream. For
+ * sin, cos and tan there is also an incremental mode: from an exact sin and cos at one step, the next ones
+ * come from the angle-addition recurrence (a rotation by the step angle, 4 multiplies instead of a call to
+ * Math.sin), and every K steps the values are resynced to the exact ones so that rounding cannot drift far.<br>
+ * Several functions can be computed over the same grid in one pass (one table each), which works out each x
+ * once for all of them.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class TableComputer {
+
+    /** Blocks with fewer entries than this are computed on the calling thread */
+    private static final int parallelThreshold = 1 << 12;
+
+    /** The number of entries that each parallel task computes directly */
+    private static final int directTaskSize = 1 << 10;
+
+    /** The functions of x (one per table) */
+    private final DoubleUnaryOperator[] functions;
+
+    /** stop - start */
+    private final double span;
+
+    /** The number of steps of the table */
+    private final int totalSteps;
+
+    /** Whether to spread the blocks over the cores */
+    private final boolean parallel;
+
+    /** The function that the recurrence makes (SIN, COS or TAN), or null to compute every entry directly */
+    private final TrigTableGenerator.Functions recurrenceFunction;
+
+    /** The number of steps between resyncs of the recurrence */
+    private final int resyncInterval;
+
+    /** The exact sin of a step of the table (the rotation of the recurrence) */
+    private final double stepSin;
+
+    /** The exact cos of a step of the table */
+    private final double stepCos;
+
+    /** The exact sin at a point of the grid (for resyncing the recurrence) */
+    private final DoubleUnaryOperator exactSin;
+
+    /** The exact cos at a point of the grid */
+    private final DoubleUnaryOperator exactCos;
+
+    /**
+     * Set up a computer that calls the function for every entry
+     *
+     * @param function   The function of x
+     * @param startValue The initial value
+     * @param stopValue  The final value
+     * @param totalSteps The number of steps of the table
+     * @param parallel   Whether to spread the entries over the cores
+     */
+    public TableComputer(DoubleUnaryOperator function, double startValue, double stopValue, int totalSteps,
+                         boolean parallel) {
+        this(new DoubleUnaryOperator[] {function}, startValue, stopValue, totalSteps, parallel);
+    }
+
+    /**
+     * Set up a computer that calls several functions for every entry, for one table each
+     *
+     * @param functions  The functions of x
+     * @param startValue The initial value
+     * @param stopValue  The final value
+     * @param totalSteps The number of steps of the tables
+     * @param parallel   Whether to spread the entries over the cores
+     * @throws IllegalArgumentException If there are no functions
+     */
+    public TableComputer(DoubleUnaryOperator[] functions, double startValue, double stopValue, int totalSteps,
+                         boolean parallel) {
+        if (functions.length == 0)
+            throw new IllegalArgumentException("There must be at least one function");
+        this.functions = functions.clone();
+        this.span = stopValue - startValue;
+        this.totalSteps = totalSteps;
+        this.parallel = parallel;
+        this.recurrenceFunction = null;
+        this.resyncInterval = 0;
+        this.stepSin = 0;
+        this.stepCos = 0;
+        this.exactSin = null;
+        this.exactCos = null;
+    }
+
+    /**
+     * Set up a computer that makes sin, cos or tan with the angle-addition recurrence
+     *
+     * @param function       The function to make (SIN, COS or TAN)
+     * @param angleType      The type of angle (deg or rad) of the grid
+     * @param startValue     The initial value
+     * @param stopValue      The final value
+     * @param totalSteps     The number of steps of the table
+     * @param parallel       Whether to spread the resync segments over the cores
+     * @param resyncInterval The number of steps between resyncs to the exact values (at least 1)
+     * @throws IllegalArgumentException If the function is not sin, cos or tan, or the interval is not positive
+     */
+    public TableComputer(TrigTableGenerator.Functions function, TrigTableGenerator.AngleTypes angleType,
+                         double startValue, double stopValue, int totalSteps, boolean parallel,
+                         int resyncInterval) {
+        if (function != TrigTableGenerator.Functions.SIN && function != TrigTableGenerator.Functions.COS
+                && function != TrigTableGenerator.Functions.TAN)
+            throw new IllegalArgumentException("The recurrence only makes sin, cos and tan: " + function);
+        if (resyncInterval < 1)
+            throw new IllegalArgumentException("The resync interval must be positive: " + resyncInterval);
+
+        this.functions = new DoubleUnaryOperator[] {TrigTableGenerator.operator(function, angleType)};
+        this.span = stopValue - startValue;
+        this.totalSteps = totalSteps;
+        this.parallel = parallel;
+        this.recurrenceFunction = function;
+        this.resyncInterval = resyncInterval;
+        this.exactSin = TrigTableGenerator.operator(TrigTableGenerator.Functions.SIN, angleType);
+        this.exactCos = TrigTableGenerator.operator(TrigTableGenerator.Functions.COS, angleType);
+
+        double step = span / totalSteps;
+        this.stepSin = exactSin.applyAsDouble(step);
+        this.stepCos = exactCos.applyAsDouble(step);
+    }
+
+    /**
+     * Get the number of tables that are computed
+     *
+     * @return Returns the number of functions
+     */
+    public int tableCount() {
+        return functions.length;
+    }
+
+    /**
+     * Get the x of an entry
+     *
+     * @param n The index of the entry
+     * @return Returns n * (stop - start) / steps
+     */
+    private double x(long n) {
+        return (n * span) / totalSteps;
+    }
+
+    /**
+     * Compute a run of entries of the first table
+     *
+     * @param first The index of the first entry
+     * @param count The number of entries
+     * @param block The array to put the entries in (from index 0)
+     */
+    public void fill(long first, int count, double[] block) {
+        fill(first, count, new double[][] {block});
+    }
+
+    /**
+     * Compute a run of entries of every table
+     *
+     * @param first  The index of the first entry
+     * @param count  The number of entries
+     * @param blocks The arrays to put the entries in (from index 0), one per table
+     */
+    public void fill(long first, int count, double[][] blocks) {
+        // Work is handed out in tasks: runs of entries, or the resync segments of the recurrence
+        int taskSize = recurrenceFunction == null ? directTaskSize : resyncInterval;
+        long firstTask = first / taskSize;
+        long lastTask = (first + count - 1) / taskSize;
+        int taskCount = (int) (lastTask - firstTask + 1);
+
+        IntStream tasks = IntStream.range(0, taskCount);
+        if (parallel && count >= parallelThreshold)
+            tasks = tasks.parallel();
+        tasks.forEach(task -> {
+            long taskStart = (firstTask + task) * taskSize;
+            long from = Math.max(first, taskStart);
+            long to = Math.min(first + count, taskStart + taskSize);
+            if (recurrenceFunction == null) {
+                for (long n = from; n < to; n++) {
+                    double x = x(n);
+                    for (int table = 0; table < functions.length; table++)
+                        blocks[table][(int) (n - first)] = functions[table].applyAsDouble(x);
+                }
+            } else {
+                fillSegment(taskStart, from, to, first, blocks[0]);
+            }
+        });
+    }
+
+    /**
+     * Compute the entries of one resync segment with the recurrence
+     *
+     * @param segmentStart The index of the entry that the segment starts (and is resynced) at
+     * @param from         The index of the first entry to store
+     * @param to           The index after the last entry to store
+     * @param first        The index of the entry at the start of the block
+     * @param block        The array to put the entries in
+     */
+    private void fillSegment(long segmentStart, long from, long to, long first, double[] block) {
+        double sin = exactSin.applyAsDouble(x(segmentStart));
+        double cos = exactCos.applyAsDouble(x(segmentStart));
+        for (long n = segmentStart; n < to; n++) {
+            if (n >= from) {
+                // The resync point is exactly what the direct computation gives
+                double value;
+                if (n == segmentStart)
+                    value = functions[0].applyAsDouble(x(n));
+                else if (recurrenceFunction == TrigTableGenerator.Functions.SIN)
+                    value = sin;
+                else if (recurrenceFunction == TrigTableGenerator.Functions.COS)
+                    value = cos;
+                else
+                    value = sin / cos;
+                block[(int) (n - first)] = value;
+            }
+
+            // Rotate by one step: sin(a + h) = sin a cos h + cos a sin h, cos(a + h) = cos a cos h - sin a sin h
+            double nextSin = sin * stepCos + cos * stepSin;
+            cos = cos * stepCos - sin * stepSin;
+            sin = nextSin;
+        }
+    }
+}
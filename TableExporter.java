@@ -0,0 +1,87 @@
+import java.io.IOException;
+
+/**
+ * Writes the entries of a TrigTableGenerator table in some format (text, C or Java source, or raw binary).
+ * The entries are handed over one at a time in order, so a table never has to be held in memory.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public interface TableExporter {
+
+    /** The types that the entries can be stored as */
+    enum ElementTypes {
+        /** 8 byte IEEE 754 doubles */
+        FLOAT64(8),
+        /** 4 byte IEEE 754 floats */
+        FLOAT32(4),
+        /** 2 byte signed fixed point with 15 fraction bits, for [-1, 1) */
+        Q15(2),
+        /** 4 byte signed fixed point with 31 fraction bits, for [-1, 1) */
+        Q31(4),
+        /** 4 byte signed integers (for indexes into a table, like the segment offsets of an adaptive table) */
+        INT32(4);
+
+        /** The number of bytes in each entry */
+        final int byteWidth;
+
+        /**
+         * Describe an element type
+         *
+         * @param byteWidth The number of bytes in each entry
+         */
+        ElementTypes(int byteWidth) {
+            this.byteWidth = byteWidth;
+        }
+
+        /**
+         * Check if the type is fixed point
+         *
+         * @return Returns true for Q15 and Q31
+         */
+        boolean isFixedPoint() {
+            return this == Q15 || this == Q31;
+        }
+
+        /**
+         * Turn a value into a fixed point or integer entry (rounded to nearest, and saturated to the range of
+         * the type)
+         *
+         * @param value The value to convert
+         * @return Returns the raw fixed point entry, or the integer
+         */
+        long quantize(double value) {
+            long largest = this == Q15 ? Short.MAX_VALUE : Integer.MAX_VALUE;
+            double scaled = Math.rint(this == INT32 ? value : value * (largest + 1));
+            if (Double.isNaN(scaled))
+                return 0;
+            return (long) Math.max(-largest - 1, Math.min(largest, scaled));
+        }
+
+        /**
+         * Check if a value is out of the range of a fixed point type (1 itself is just short of the range, and
+         * is taken as the largest entry without counting as out of range)
+         *
+         * @param value The value to check
+         * @return Returns true if the value is outside of [-1, 1]
+         */
+        boolean saturates(double value) {
+            return isFixedPoint() && !(value >= -1 && value <= 1);
+        }
+    }
+
+    /**
+     * Write the next entry of the table
+     *
+     * @param value The value of the entry
+     * @throws IOException If the output could not be written
+     */
+    void write(double value) throws IOException;
+
+    /**
+     * Write the end of the table and everything that is still buffered (the output is not closed)
+     *
+     * @throws IOException If the output could not be written
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,253 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The registry of the functions that TrigTableGenerator can make tables of, by name. Every function is a
+ * DoubleUnaryOperator, so adding one is a single call to register (e.g. from a program that wraps
+ * TrigTableGenerator.main) and it can then be picked with -fn like the built in ones.<br>
+ * A function is looked up with a spec: its name, and for the functions that take a parameter a ':' and the
+ * parameter (e.g. "gamma:2.2" or "atan2:1"). Functions whose input is an angle take it in degrees or radians as
+ * the table asks, and functions whose result is an angle give it the same way (usesAngles() tells them apart
+ * from the functions that ignore the angle type).
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class TableFunctions {
+
+    /** Makes a function for a parameter and angle type */
+    @FunctionalInterface
+    public interface Factory {
+
+        /**
+         * Make the function
+         *
+         * @param parameter The parameter from the spec (0 for functions without one)
+         * @param angleType The type of angle (deg or rad) of the table
+         * @return Returns the function of x
+         */
+        DoubleUnaryOperator create(double parameter, TrigTableGenerator.AngleTypes angleType);
+    }
+
+    /** A registered function */
+    private static final class Entry {
+
+        /** Whether the spec has to give a parameter */
+        final boolean hasParameter;
+
+        /** Whether the input or the result of the function is an angle */
+        final boolean usesAngles;
+
+        /** What the function computes (for the help) */
+        final String description;
+
+        /** Makes the function */
+        final Factory factory;
+
+        /**
+         * Describe a registered function
+         *
+         * @param hasParameter Whether the spec has to give a parameter
+         * @param usesAngles   Whether the input or the result of the function is an angle
+         * @param description  What the function computes
+         * @param factory      Makes the function
+         */
+        Entry(boolean hasParameter, boolean usesAngles, String description, Factory factory) {
+            this.hasParameter = hasParameter;
+            this.usesAngles = usesAngles;
+            this.description = description;
+            this.factory = factory;
+        }
+    }
+
+    /** The functions by name, in the order they were registered */
+    private static final Map<String, Entry> registry = new LinkedHashMap<>();
+
+    static {
+        // The original functions go through TrigTableGenerator.operator, so their tables do not change
+        register("sin", "sin(x) of an angle", false, true,
+                (parameter, angleType) -> TrigTableGenerator.operator(TrigTableGenerator.Functions.SIN, angleType));
+        register("cos", "cos(x) of an angle", false, true,
+                (parameter, angleType) -> TrigTableGenerator.operator(TrigTableGenerator.Functions.COS, angleType));
+        register("tan", "tan(x) of an angle", false, true,
+                (parameter, angleType) -> TrigTableGenerator.operator(TrigTableGenerator.Functions.TAN, angleType));
+        register("x2", "x^2", false,
+                (parameter, angleType) -> TrigTableGenerator.operator(TrigTableGenerator.Functions.X2, angleType));
+        register("x3", "x^3", false,
+                (parameter, angleType) -> TrigTableGenerator.operator(TrigTableGenerator.Functions.X3, angleType));
+
+        registerAngleResult("asin", "asin(x) as an angle", Math::asin);
+        registerAngleResult("acos", "acos(x) as an angle", Math::acos);
+        registerAngleResult("atan", "atan(x) as an angle", Math::atan);
+        register("atan2", "atan2(p, x) as an angle (the slice at y = p)", true, true,
+                (y, angleType) -> angleResult(x -> Math.atan2(y, x), angleType));
+        register("exp", "e^x", Math::exp);
+        register("log", "natural log of x", Math::log);
+        register("log2", "log base 2 of x", x -> Math.log(x) / Math.log(2));
+        register("log10", "log base 10 of x", Math::log10);
+        register("sqrt", "square root of x", Math::sqrt);
+        register("sigmoid", "1 / (1 + e^-x)", x -> 1 / (1 + Math.exp(-x)));
+        register("tanh", "tanh(x)", Math::tanh);
+        register("gamma", "gamma correction (encoding) x^(1/p) for x in [0, 1]", true,
+                (g, angleType) -> x -> Math.pow(x, 1 / g));
+        register("degamma", "gamma expansion (decoding) x^p for x in [0, 1]", true,
+                (g, angleType) -> x -> Math.pow(x, g));
+    }
+
+    /**
+     * Not used: the registry is static
+     */
+    private TableFunctions() {
+    }
+
+    /**
+     * Register a function that does not depend on a parameter or the angle type
+     *
+     * @param name        The name to pick it by (not case sensitive)
+     * @param description What the function computes (for the help)
+     * @param function    The function of x
+     */
+    public static void register(String name, String description, DoubleUnaryOperator function) {
+        register(name, description, false, (parameter, angleType) -> function);
+    }
+
+    /**
+     * Register a function whose input is an angle (it is given radians, and degrees are converted first)
+     *
+     * @param name        The name to pick it by (not case sensitive)
+     * @param description What the function computes (for the help)
+     * @param function    The function of an angle in radians
+     */
+    public static void registerAngle(String name, String description, DoubleUnaryOperator function) {
+        register(name, description, false, true, (parameter, angleType) ->
+                angleType == TrigTableGenerator.AngleTypes.DEG ? x -> function.applyAsDouble((x * Math.PI) / 180.0)
+                        : function);
+    }
+
+    /**
+     * Register a function whose result is an angle in radians (it is converted to degrees for a deg table)
+     *
+     * @param name        The name to pick it by (not case sensitive)
+     * @param description What the function computes (for the help)
+     * @param function    The function of x, giving radians
+     */
+    public static void registerAngleResult(String name, String description, DoubleUnaryOperator function) {
+        register(name, description, false, true, (parameter, angleType) -> angleResult(function, angleType));
+    }
+
+    /**
+     * Register a function whose input and result are not angles (a later registration with the same name
+     * replaces the earlier one)
+     *
+     * @param name         The name to pick it by (not case sensitive)
+     * @param description  What the function computes (for the help)
+     * @param hasParameter Whether the spec has to give a parameter (name:parameter)
+     * @param factory      Makes the function for a parameter and angle type
+     * @throws IllegalArgumentException If the name is empty or has a ':' or ','
+     */
+    public static void register(String name, String description, boolean hasParameter, Factory factory) {
+        register(name, description, hasParameter, false, factory);
+    }
+
+    /**
+     * Register a function (a later registration with the same name replaces the earlier one)
+     *
+     * @param name         The name to pick it by (not case sensitive)
+     * @param description  What the function computes (for the help)
+     * @param hasParameter Whether the spec has to give a parameter (name:parameter)
+     * @param usesAngles   Whether the input or the result of the function is an angle (so that the angle type
+     *                     matters)
+     * @param factory      Makes the function for a parameter and angle type
+     * @throws IllegalArgumentException If the name is empty or has a ':' or ','
+     */
+    public static synchronized void register(String name, String description, boolean hasParameter,
+                                             boolean usesAngles, Factory factory) {
+        if (name.isEmpty() || name.contains(":") || name.contains(","))
+            throw new IllegalArgumentException("Invalid function name: " + name);
+        registry.put(name.toLowerCase(Locale.ROOT), new Entry(hasParameter, usesAngles, description, factory));
+    }
+
+    /**
+     * Convert the result of a function from radians to degrees for a deg table
+     *
+     * @param function  The function of x, giving radians
+     * @param angleType The type of angle (deg or rad) of the table
+     * @return Returns the function of x, giving the angle type
+     */
+    private static DoubleUnaryOperator angleResult(DoubleUnaryOperator function,
+                                                   TrigTableGenerator.AngleTypes angleType) {
+        if (angleType == TrigTableGenerator.AngleTypes.DEG)
+            return x -> Math.toDegrees(function.applyAsDouble(x));
+        return function;
+    }
+
+    /**
+     * Look up a function by its spec
+     *
+     * @param spec      The name, and ":parameter" for the functions that take one
+     * @param angleType The type of angle (deg or rad) of the table
+     * @return Returns the function of x
+     * @throws IllegalArgumentException If there is no such function, or the parameter is missing or not a number
+     */
+    public static synchronized DoubleUnaryOperator get(String spec, TrigTableGenerator.AngleTypes angleType) {
+        int colon = spec.indexOf(':');
+        String name = (colon < 0 ? spec : spec.substring(0, colon)).toLowerCase(Locale.ROOT);
+        Entry entry = entry(spec);
+        if (entry.hasParameter != (colon >= 0))
+            throw new IllegalArgumentException(entry.hasParameter ? "The function needs a parameter (" + name +
+                    ":value): " + spec : "The function does not take a parameter: " + spec);
+
+        double parameter = 0;
+        if (colon >= 0) {
+            try {
+                parameter = Double.parseDouble(spec.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The parameter is not a number: " + spec);
+            }
+        }
+        return entry.factory.create(parameter, angleType);
+    }
+
+    /**
+     * Check if the angle type matters to a function (its input or result is an angle)
+     *
+     * @param spec The name, and ":parameter" for the functions that take one
+     * @return Returns true for the angle functions
+     * @throws IllegalArgumentException If there is no such function
+     */
+    public static synchronized boolean usesAngles(String spec) {
+        return entry(spec).usesAngles;
+    }
+
+    /**
+     * Find the registered function of a spec
+     *
+     * @param spec The name, and ":parameter" for the functions that take one
+     * @return Returns the registered function
+     * @throws IllegalArgumentException If there is no such function
+     */
+    private static Entry entry(String spec) {
+        int colon = spec.indexOf(':');
+        Entry entry = registry.get((colon < 0 ? spec : spec.substring(0, colon)).toLowerCase(Locale.ROOT));
+        if (entry == null)
+            throw new IllegalArgumentException("Unknown function: " + spec);
+        return entry;
+    }
+
+    /**
+     * List the registered functions
+     *
+     * @return Returns one "name - description" line per function (with ":p" after the ones that take a parameter)
+     */
+    public static synchronized List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Entry> function : registry.entrySet())
+            lines.add(function.getKey() + (function.getValue().hasParameter ? ":p" : "") + " - " +
+                    function.getValue().description);
+        return lines;
+    }
+}
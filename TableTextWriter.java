@@ -0,0 +1,192 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a TrigTableGenerator table as text to a channel in large blocks: a C-style "{ ... }" initializer
+ * with every entry left-justified in a 25 character column (like String.format("%-25s")) and a fixed number
+ * of entries per line. The entries are formatted straight into the block (doubles and floats with
+ * DoubleFormatter, fixed point integers digit by digit), so no Strings are made per entry (except on JDKs
+ * before 19, where DoubleFormatter falls back to Double.toString and Float.toString to match them).<br>
+ * Text can go before and after the braces, which turns the initializer into a C or Java array declaration,
+ * and the entries can be written as floats or as fixed point integers.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public class TableTextWriter implements TableExporter {
+
+    /** The width that every entry is padded to */
+    private static final int entryWidth = 25;
+
+    /** The size of the blocks that are written to the channel */
+    private static final int blockSize = 1 << 16;
+
+    /** The line separator written after the closing brace */
+    private static final byte[] lineSeparator = System.lineSeparator().getBytes();
+
+    /** The channel to write to */
+    private final WritableByteChannel output;
+
+    /** The number of entries on each line */
+    private final int columns;
+
+    /** The text written after every number (e.g. "f") */
+    private final byte[] suffix;
+
+    /** The number of entries in the whole table */
+    private final long entryCount;
+
+    /** The type to write the entries as */
+    private final ElementTypes elementType;
+
+    /** The text written after the closing brace */
+    private final byte[] closing;
+
+    /** The block that the output is collected in */
+    private final byte[] block;
+
+    /** The number of bytes in the block */
+    private int position = 0;
+
+    /** The number of entries written so far */
+    private long entriesWritten = 0;
+
+    /** Counts down the entries left on the current line */
+    private int column;
+
+    /**
+     * Start a table of doubles (the opening brace is written into the first block)
+     *
+     * @param output     The channel to write to
+     * @param columns    The number of entries on each line
+     * @param suffix     The text to write after every number (e.g. "f", or "" for none)
+     * @param entryCount The number of entries in the whole table (the last one has no comma)
+     */
+    public TableTextWriter(WritableByteChannel output, int columns, String suffix, long entryCount) {
+        this(output, columns, suffix, entryCount, ElementTypes.FLOAT64, "", "");
+    }
+
+    /**
+     * Start a table (the opening text and brace are written into the first block)
+     *
+     * @param output      The channel to write to
+     * @param columns     The number of entries on each line
+     * @param suffix      The text to write after every number (e.g. "f", or "" for none)
+     * @param entryCount  The number of entries in the whole table (the last one has no comma)
+     * @param elementType The type to write the entries as (fixed point entries are written as integers)
+     * @param opening     The text to write before the opening brace (e.g. a declaration)
+     * @param closing     The text to write after the closing brace (e.g. ";")
+     */
+    public TableTextWriter(WritableByteChannel output, int columns, String suffix, long entryCount,
+                           ElementTypes elementType, String opening, String closing) {
+        this.output = output;
+        this.columns = columns;
+        this.suffix = suffix.getBytes();
+        this.entryCount = entryCount;
+        this.elementType = elementType;
+        this.closing = closing.getBytes();
+
+        byte[] openingBytes = opening.getBytes();
+        this.block = new byte[Math.max(blockSize, openingBytes.length + this.closing.length +
+                2 * (DoubleFormatter.maxLength + this.suffix.length + entryWidth))];
+        this.column = columns + 1;
+
+        System.arraycopy(openingBytes, 0, block, 0, openingBytes.length);
+        position = openingBytes.length;
+        block[position++] = '{';
+        block[position++] = '\n';
+        block[position++] = ' ';
+    }
+
+    /**
+     * Write the next entry of the table
+     *
+     * @param value The value of the entry
+     * @throws IOException If the channel could not be written
+     */
+    @Override
+    public void write(double value) throws IOException {
+        // Room for a line break, the longest number, the suffix, a comma and the padding
+        if (block.length - position < 3 + DoubleFormatter.maxLength + suffix.length + entryWidth)
+            flush();
+
+        if (--column == 0) {
+            column = columns;
+            block[position++] = '\n';
+            block[position++] = ' ';
+        }
+
+        int entryStart = position;
+        switch (elementType) {
+            case FLOAT64:
+                position = DoubleFormatter.format(value, block, position);
+                break;
+            case FLOAT32:
+                position = DoubleFormatter.formatFloat((float) value, block, position);
+                break;
+            default:
+                position = writeInteger(elementType.quantize(value), position);
+        }
+        System.arraycopy(suffix, 0, block, position, suffix.length);
+        position += suffix.length;
+        if (++entriesWritten < entryCount)
+            block[position++] = ',';
+
+        while (position - entryStart < entryWidth)
+            block[position++] = ' ';
+    }
+
+    /**
+     * Write the closing brace and everything that is left in the block (the channel is not closed)
+     *
+     * @throws IOException If the channel could not be written
+     */
+    @Override
+    public void finish() throws IOException {
+        if (block.length - position < 2 + closing.length + lineSeparator.length)
+            flush();
+        block[position++] = '\n';
+        block[position++] = '}';
+        System.arraycopy(closing, 0, block, position, closing.length);
+        position += closing.length;
+        System.arraycopy(lineSeparator, 0, block, position, lineSeparator.length);
+        position += lineSeparator.length;
+        flush();
+    }
+
+    /**
+     * Write the decimal digits of an integer into the block
+     *
+     * @param number   The number to write
+     * @param position The index to start writing at
+     * @return Returns the index after the last digit
+     */
+    private int writeInteger(long number, int position) {
+        if (number < 0)
+            block[position++] = '-';
+
+        // Work with the negative value so that Long.MIN_VALUE does not overflow
+        long value = number < 0 ? number : -number;
+        int digitCount = 1;
+        for (long remaining = value / 10; remaining != 0; remaining /= 10)
+            digitCount++;
+        for (int i = position + digitCount - 1; i >= position; i--) {
+            block[i] = (byte) ('0' - value % 10);
+            value /= 10;
+        }
+        return position + digitCount;
+    }
+
+    /**
+     * Write the block to the channel
+     *
+     * @throws IOException If the channel could not be written
+     */
+    private void flush() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(block, 0, position);
+        while (buffer.hasRemaining())
+            output.write(buffer);
+        position = 0;
+    }
+}
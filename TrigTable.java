@@ -0,0 +1,436 @@
+/**
+ * A lookup table of one of the TrigTableGenerator functions that can be used in place of Math.sin, Math.cos
+ * and Math.tan in hot loops. A periodic table covers one period of sin, cos or tan with a power of two number
+ * of entries. Any angle is folded into one period by taking away the nearest whole number of periods, with
+ * the period split into three parts so that the remainder is accurate (Cody and Waite's reduction), and the
+ * position in the table is then a multiply, a floor and a mask. Only angles past about 2^26 periods take a
+ * slower path, which is exact too. A range table covers [start, stop] of any of the functions and clamps
+ * angles outside of it. Like Math.sin, every lookup gives NaN for a NaN angle, and a periodic table gives NaN
+ * for an infinite one (a range table clamps it like any other angle outside of the range).<br>
+ * Lookups can take the nearest entry, interpolate linearly between the two entries around the angle, or fit
+ * a parabola through the three entries closest to it. The entries are kept as doubles, or as floats to halve
+ * the size of the table (4096 float entries fit in 16 KiB of L1 cache). errorBound() gives the worst error
+ * that a mode can have, from the derivatives of the function, and measuredError() checks it against the
+ * function at many points, so accuracy can be traded for speed on purpose.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+public final class TrigTable {
+
+    /** The ways that a value between two entries can be looked up */
+    public enum Interpolation {
+        /** The closest entry */
+        NEAREST,
+        /** A straight line between the entries on each side */
+        LINEAR,
+        /** A parabola through the three closest entries */
+        QUADRATIC
+    }
+
+    /** The types that the entries can be stored as */
+    public enum Precision {
+        /** 8 byte entries */
+        DOUBLE,
+        /** 4 byte entries (about 7 significant digits) */
+        FLOAT
+    }
+
+    /** The number of entries in a periodic table when none is given */
+    public static final int defaultSize = 1 << 12;
+
+    /** The most periods that the fast reduction can take away (k times the high and middle parts stay exact) */
+    private static final double reductionLimit = 1 << 26;
+
+    /** Math.PI with its low 27 bits cleared, so that it has 26 significant bits */
+    private static final double piHigh = Double.longBitsToDouble(Double.doubleToRawLongBits(Math.PI) & -(1L << 27));
+
+    /** The rest of Math.PI (it fits in 26 significant bits too) */
+    private static final double piMiddle = Math.PI - piHigh;
+
+    /** pi - Math.PI (the rounding error of Math.PI, which is sin(Math.PI)) */
+    private static final double piLow = 1.2246467991473532e-16;
+
+    /** The number of points between two entries that measuredError() checks */
+    private static final int samplesPerStep = 16;
+
+    /** The most points that measuredError() checks */
+    private static final int maxSamples = 1 << 22;
+
+    /** The most that the three weights of a parabola can add up to (at the edges of a range table) */
+    private static final double quadraticWeightSum = 1.25;
+
+    /** The function in the table */
+    private final TrigTableGenerator.Functions function;
+
+    /** The angle type of the function */
+    private final TrigTableGenerator.AngleTypes angleType;
+
+    /** The x of the first entry */
+    private final double start;
+
+    /** The x of the last entry of a range table (or the period of a periodic table) */
+    private final double stop;
+
+    /** The distance in x between two entries */
+    private final double step;
+
+    /** The number of entries per unit of x */
+    private final double scale;
+
+    /** The period of a periodic table (or 0 for a range table) */
+    private final double period;
+
+    /** 1 / period (or 0 for a range table) */
+    private final double inversePeriod;
+
+    /** The high part of the true period (the whole period for degrees, which is exact) */
+    private final double periodHigh;
+
+    /** The middle part of the true period */
+    private final double periodMiddle;
+
+    /** The low part of the true period */
+    private final double periodLow;
+
+    /** The number of entries */
+    private final int size;
+
+    /** size - 1 (used to wrap the index of a periodic table) */
+    private final int mask;
+
+    /** The entries of a double table (or null) */
+    private final double[] doubles;
+
+    /** The entries of a float table (or null) */
+    private final float[] floats;
+
+    /**
+     * Build a table
+     *
+     * @param function  The function to tabulate
+     * @param angleType The angle type of the function
+     * @param start     The x of the first entry
+     * @param stop      The x of the last entry (or the period of a periodic table)
+     * @param size      The number of entries
+     * @param period    The period of a periodic table (or 0 for a range table)
+     * @param precision The type to store the entries as
+     */
+    private TrigTable(TrigTableGenerator.Functions function, TrigTableGenerator.AngleTypes angleType,
+                      double start, double stop, int size, double period, Precision precision) {
+        this.function = function;
+        this.angleType = angleType;
+        this.start = start;
+        this.stop = stop;
+        this.period = period;
+        this.size = size;
+        this.mask = size - 1;
+
+        // A periodic table does not repeat its first entry at the end, a range table ends on stop
+        this.step = period != 0 ? period / size : (stop - start) / (size - 1);
+        this.scale = 1 / step;
+
+        // A radian period is 1 or 2 pi, and scaling the parts by 2 keeps them exact
+        this.inversePeriod = period != 0 ? 1 / period : 0;
+        boolean radians = period != 0 && angleType == TrigTableGenerator.AngleTypes.RAD;
+        double turns = radians ? period / Math.PI : 0;
+        this.periodHigh = radians ? turns * piHigh : period;
+        this.periodMiddle = turns * piMiddle;
+        this.periodLow = turns * piLow;
+
+        double[] entries = new double[size];
+        for (int i = 0; i < size; i++)
+            entries[i] = TrigTableGenerator.evaluate(start + i * (stop - start) / (period != 0 ? size : size - 1),
+                    function, angleType);
+
+        if (precision == Precision.FLOAT) {
+            this.doubles = null;
+            this.floats = new float[size];
+            for (int i = 0; i < size; i++)
+                this.floats[i] = (float) entries[i];
+        } else {
+            this.doubles = entries;
+            this.floats = null;
+        }
+    }
+
+    /**
+     * Build a table over one period of sin, cos or tan (lookups take any angle)
+     *
+     * @param function  The function to tabulate (SIN, COS or TAN)
+     * @param angleType The angle type of the function
+     * @param size      The number of entries (a power of two, at least 4)
+     * @param precision The type to store the entries as
+     * @return Returns the table
+     * @throws IllegalArgumentException If the function is not periodic or the size is not a power of two
+     */
+    public static TrigTable periodic(TrigTableGenerator.Functions function, TrigTableGenerator.AngleTypes angleType,
+                                     int size, Precision precision) {
+        if (size < 4 || Integer.bitCount(size) != 1)
+            throw new IllegalArgumentException("The size must be a power of two of at least 4: " + size);
+
+        double halfTurn = angleType == TrigTableGenerator.AngleTypes.DEG ? 180 : Math.PI;
+        switch (function) {
+            case SIN:
+            case COS:
+                return new TrigTable(function, angleType, 0, 2 * halfTurn, size, 2 * halfTurn, precision);
+            case TAN:
+                return new TrigTable(function, angleType, 0, halfTurn, size, halfTurn, precision);
+            default:
+                throw new IllegalArgumentException("Not a periodic function: " + function);
+        }
+    }
+
+    /**
+     * Build a table of any function over a range (lookups outside of the range are clamped to it)
+     *
+     * @param function  The function to tabulate
+     * @param angleType The angle type of the function
+     * @param start     The x of the first entry
+     * @param stop      The x of the last entry
+     * @param steps     The number of steps between start and stop (there are steps + 1 entries, at least 3)
+     * @param precision The type to store the entries as
+     * @return Returns the table
+     * @throws IllegalArgumentException If the range is empty or there are less than 2 steps
+     */
+    public static TrigTable range(TrigTableGenerator.Functions function, TrigTableGenerator.AngleTypes angleType,
+                                  double start, double stop, int steps, Precision precision) {
+        if (!(start < stop) || Double.isInfinite(stop - start))
+            throw new IllegalArgumentException("The range is empty or not finite: " + start + " to " + stop);
+        if (steps < 2 || steps == Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid number of steps: " + steps);
+        return new TrigTable(function, angleType, start, stop, steps + 1, 0, precision);
+    }
+
+    /**
+     * Get the number of entries
+     *
+     * @return Returns the size of the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the distance in x between two entries
+     *
+     * @return Returns the step of the table
+     */
+    public double step() {
+        return step;
+    }
+
+    /**
+     * Check if the table wraps around (instead of clamping)
+     *
+     * @return Returns true for a periodic table
+     */
+    public boolean isPeriodic() {
+        return period != 0;
+    }
+
+    /**
+     * Look up a value
+     *
+     * @param x    The value to be passed to the function
+     * @param mode How to look up values between the entries
+     * @return Returns the value from the table (NaN for a NaN x, or an infinite x in a periodic table)
+     */
+    public double lookup(double x, Interpolation mode) {
+        switch (mode) {
+            case NEAREST:
+                return nearest(x);
+            case LINEAR:
+                return linear(x);
+            default:
+                return quadratic(x);
+        }
+    }
+
+    /**
+     * Look up a value using the closest entry
+     *
+     * @param x The value to be passed to the function
+     * @return Returns the value from the table (NaN for a NaN x, or an infinite x in a periodic table)
+     */
+    public double nearest(double x) {
+        // A NaN position would be cast to index 0, the interpolating lookups carry it through on their own
+        double u = position(x);
+        if (u != u)
+            return Double.NaN;
+        return entry(index((int) (u + 0.5)));
+    }
+
+    /**
+     * Look up a value by interpolating linearly between the entries on each side of it
+     *
+     * @param x The value to be passed to the function
+     * @return Returns the value from the table (NaN for a NaN x, or an infinite x in a periodic table)
+     */
+    public double linear(double x) {
+        double u = position(x);
+        int below = (int) u;
+        double t = u - below;
+        double y0 = entry(index(below));
+        return y0 + t * (entry(index(below + 1)) - y0);
+    }
+
+    /**
+     * Look up a value on the parabola through the three closest entries
+     *
+     * @param x The value to be passed to the function
+     * @return Returns the value from the table (NaN for a NaN x, or an infinite x in a periodic table)
+     */
+    public double quadratic(double x) {
+        double u = position(x);
+        int center = (int) (u + 0.5);
+
+        // A range table has no entries past its ends, so the parabola is moved in by one there
+        if (period == 0)
+            center = Math.max(1, Math.min(size - 2, center));
+        double t = u - center;
+
+        double before = entry(index(center - 1));
+        double middle = entry(index(center));
+        double after = entry(index(center + 1));
+        return middle + t * ((after - before) * 0.5 + t * ((after + before) * 0.5 - middle));
+    }
+
+    /**
+     * Find the position of an x in the table (the fast path takes away whole periods with three multiplies,
+     * then is a multiply and a floor)
+     *
+     * @param x The value to be passed to the function
+     * @return Returns the position in units of entries (in [0, size] for a periodic table, clamped to
+     * [0, size - 1] for a range table), or NaN for a NaN x or an infinite x in a periodic table
+     */
+    private double position(double x) {
+        if (period == 0)
+            return Math.max(0, Math.min(size - 1, (x - start) * scale));
+
+        // k times the high and middle parts are exact, and x - k * high cancels exactly, so the remainder is
+        // only off by the rounding of the last two steps (a multiply by a rounded period would be off by k ulps)
+        double k = Math.rint(x * inversePeriod);
+        double remainder;
+        if (Math.abs(k) < reductionLimit)
+            remainder = ((x - k * periodHigh) - k * periodMiddle) - k * periodLow;
+        else if (angleType == TrigTableGenerator.AngleTypes.DEG)
+            remainder = x % period;   // The remainder of a double is exact, and so is a period in degrees
+        else
+            // Math.sin and Math.cos reduce exactly for any x, and the angle in (-pi, pi] that they give is a
+            // whole number of periods (of pi or 2 pi) away from x
+            remainder = Math.atan2(Math.sin(x), Math.cos(x));
+
+        double u = remainder * scale;
+        double floor = Math.floor(u);
+        return ((int) floor & mask) + (u - floor);
+    }
+
+    /**
+     * Turn a whole position into the index of an entry
+     *
+     * @param position The whole position (can be one past either end)
+     * @return Returns the index, wrapped for a periodic table and clamped for a range table
+     */
+    private int index(int position) {
+        if (period != 0)
+            return position & mask;
+        return Math.max(0, Math.min(size - 1, position));
+    }
+
+    /**
+     * Read an entry
+     *
+     * @param index The index of the entry
+     * @return Returns the entry as a double
+     */
+    private double entry(int index) {
+        return doubles != null ? doubles[index] : floats[index];
+    }
+
+    /**
+     * Work out the worst error that a lookup mode can have from the derivatives of the function (the error of
+     * interpolating plus the rounding of the entries, a few ulps for the lookup arithmetic and, for a periodic
+     * table, the rounding of the reduced angle). It holds for every finite x.
+     *
+     * @param mode The lookup mode
+     * @return Returns the bound on the absolute error (infinite for tan, which has no bounded derivatives
+     * over a period; use measuredError() for it)
+     */
+    public double errorBound(Interpolation mode) {
+        // Largest |f'|, |f''| and |f'''| over the table
+        double[] derivatives = derivativeBounds();
+
+        double interpolationError;
+        double weightSum;
+        switch (mode) {
+            case NEAREST:
+                interpolationError = step / 2 * derivatives[0];
+                weightSum = 1;
+                break;
+            case LINEAR:
+                interpolationError = step * step / 8 * derivatives[1];
+                weightSum = 1;
+                break;
+            default:
+                // |t (t^2 - 1)| / 6 is at most 1 / (9 sqrt(3)) for the t in [-1, 1] that a lookup can use
+                interpolationError = step * step * step / (9 * Math.sqrt(3)) * derivatives[2];
+                weightSum = quadraticWeightSum;
+        }
+
+        double largestEntry = 0;
+        for (int i = 0; i < size; i++)
+            largestEntry = Math.max(largestEntry, Math.abs(entry(i)));
+        double roundingError = largestEntry * ((doubles != null ? 0x1p-53 : 0x1p-24) * weightSum + 4 * 0x1p-53);
+
+        // The reduced angle is within a couple of ulps of the period of the true one
+        double reductionError = period != 0 ? 2 * Math.ulp(period) * derivatives[0] : 0;
+
+        return interpolationError + roundingError + reductionError;
+    }
+
+    /**
+     * Bound the first three derivatives of the function over the table
+     *
+     * @return Returns the largest |f'|, |f''| and |f'''|
+     */
+    private double[] derivativeBounds() {
+        // Degrees scale every derivative by another pi / 180
+        double chain = angleType == TrigTableGenerator.AngleTypes.DEG ? Math.PI / 180 : 1;
+        double largestX = period != 0 ? Math.abs(stop) : Math.max(Math.abs(start), Math.abs(stop));
+
+        switch (function) {
+            case SIN:
+            case COS:
+                return new double[] {chain, chain * chain, chain * chain * chain};
+            case X2:
+                return new double[] {2 * largestX, 2, 0};
+            case X3:
+                return new double[] {3 * largestX * largestX, 6 * largestX, 6};
+            default:
+                return new double[] {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        }
+    }
+
+    /**
+     * Measure the error of a lookup mode by comparing it with the function at points spread over the table
+     * (including points between the entries, where the error is largest)
+     *
+     * @param mode The lookup mode
+     * @return Returns the largest absolute error that was found (points where the function is not finite,
+     * like the poles of tan, are skipped)
+     */
+    public double measuredError(Interpolation mode) {
+        double width = period != 0 ? period : stop - start;
+        int samples = (int) Math.min(maxSamples, (long) size * samplesPerStep);
+
+        double largestError = 0;
+        for (int i = 0; i < samples; i++) {
+            double x = start + (i + 0.5) * width / samples;
+            double exact = TrigTableGenerator.evaluate(x, function, angleType);
+            if (Double.isFinite(exact))
+                largestError = Math.max(largestError, Math.abs(lookup(x, mode) - exact));
+        }
+        return largestError;
+    }
+}
@@ -1,78 +1,90 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.DoubleUnaryOperator;
+
 /**
  * Generates a lookup table for sin, cos, and tan with a given number of steps
+ * (as text, C or Java source, or raw binary)
  *
  * @author <em>Zach Baldwin</em>
- * @version 2020.10.03
+ * @version 2026.10.18
  */
 
 public class TrigTableGenerator {
 
     /** Types of functions that can be preformed */
-    private enum Functions {
+    enum Functions {
         SIN, COS, TAN, X2, X3
     }
 
     /** Types of angle units */
-    private enum AngleTypes {
+    enum AngleTypes {
         DEG, RAD
     }
 
+    /** Formats that the table can be exported in */
+    enum ExportFormats {
+        TEXT, C, JAVA, BINARY
+    }
+
     /** Default start value for table generation */
     private static int defaultStartValue = 0;
 
     /** Default number of columns for output table */
     private static int defaultColumnQuantity = 4;
 
+    /** Number of entries that are computed at a time (before they are exported) */
+    private static final int computeBlockSize = 1 << 16;
+
     /**
-     * Computes the result of the specified expression and returns it as a string
+     * Computes the result of the specified expression
      *
      * @param x The value to be passed to the specified function
      * @param function The function to have x as the input of
      * @param angleType The type of angle (deg or rad) to use for the computation
-     * @return The result of the computed expression in string format (as a double)
+     * @return The result of the computed expression
      */
-    private static String computeExpression(double x, Functions function, AngleTypes angleType) {
+    static double evaluate(double x, Functions function, AngleTypes angleType) {
+        return operator(function, angleType).applyAsDouble(x);
+    }
 
-        double result;
+    /**
+     * Picks the expression for a function once, so that computing a table does not go through the switch
+     * for every entry
+     *
+     * @param function The function to compute
+     * @param angleType The type of angle (deg or rad) to use for the computation
+     * @return The expression as a function of x
+     */
+    static DoubleUnaryOperator operator(Functions function, AngleTypes angleType) {
         switch (function) {
             case COS:
-                if (AngleTypes.DEG == angleType) {
-                    result = Math.cos((x * Math.PI) / 180.0);
-                    return Double.toString(result);
-                }
-                if (AngleTypes.RAD == angleType) {
-                    result = Math.cos(x);
-                    return Double.toString(result);
-                }
-                break;
+                if (AngleTypes.DEG == angleType)
+                    return x -> Math.cos((x * Math.PI) / 180.0);
+                return Math::cos;
             case SIN:
-                if (AngleTypes.DEG == angleType) {
-                    result = Math.sin((x * Math.PI) / 180.0);
-                    return Double.toString(result);
-                }
-                if (AngleTypes.RAD == angleType) {
-                     result = Math.sin(x);
-                    return Double.toString(result);
-                }
-                break;
+                if (AngleTypes.DEG == angleType)
+                    return x -> Math.sin((x * Math.PI) / 180.0);
+                return Math::sin;
             case TAN:
-                if (AngleTypes.DEG == angleType) {
-                    result = Math.tan((x * Math.PI) / 180.0);
-                    return Double.toString(result);
-                }
-                if (AngleTypes.RAD == angleType) {
-                    result = Math.tan(x);
-                    return Double.toString(result);
-                }
-                break;
+                if (AngleTypes.DEG == angleType)
+                    return x -> Math.tan((x * Math.PI) / 180.0);
+                return Math::tan;
             case X2:
-                result = Math.pow(x, 2);
-                return Double.toString(result);
-            case X3:
-                result = Math.pow(x, 3);
-                return Double.toString(result);
+                return x -> Math.pow(x, 2);
+            default:
+                return x -> Math.pow(x, 3);
         }
-        return null;
     }
 
     /**
@@ -86,8 +98,10 @@ public class TrigTableGenerator {
                 "USAGE:\n" +
                 "$ java TrigTableGenerator [options]\n\n" +
                 "Required Options:\n" +
-                "    -fn function ................ Specify the function table to generate\n" +
-                "                                  Options: sin, cos, tan, x2, x3\n" +
+                "    -fn function[,function] ..... Specify the function table(s) to generate (a list makes one\n" +
+                "                                  table per function, computed over the same grid)\n" +
+                "                                  Options (p is a parameter, e.g. gamma:2.2):\n" +
+                functionList() +
                 "    -s, --steps steps ........... Number of steps to take when generating table\n" +
                 "    -f, --final value ........... Final (stop) value\n" +
                 "Optional Options:\n" +
@@ -95,46 +109,269 @@ public class TrigTableGenerator {
                 "    -i, --initial value ......... Initial (start) value - default: 0\n" +
                 "    -c, -cols cols .............. Number of columns to generate in output array\n" +
                 "    -?, -h, --help .............. Help: Display this menu\n" +
-                "    --float ..................... Append an 'f' to the numbers in table\n"
+                "    --float ..................... Append an 'f' to the numbers in table\n" +
+                "    -o, --output file ........... Write the table to a file instead of standard output\n" +
+                "    --format format ............. Output format: text (default), c (header), java (array) or\n" +
+                "                                  binary (raw packed entries, no header)\n" +
+                "    -t, --type type ............. Entry type: float64 (default), float32, q15 or q31\n" +
+                "                                  (q15/q31 are signed fixed point for [-1, 1), saturated)\n" +
+                "    --endian order .............. Byte order of binary entries: little (default) or big\n" +
+                "    -n, --name name ............. Name of the array in c and java output\n" +
+                "    --quarter-wave .............. Only store the first quarter wave of a full period sin\n" +
+                "                                  or cos table (steps must be a multiple of 4)\n" +
+                "    --sequential ................ Compute the table on one thread (default uses every core)\n" +
+                "    --recurrence k .............. Compute a single sin, cos or tan table with the angle-addition\n" +
+                "                                  recurrence, resynced to the exact value every k steps\n" +
+                "                                  (faster, but the entries between resyncs can be off by a\n" +
+                "                                  few ulps per step)\n" +
+                "    --max-error e ............... Make an adaptive table instead (steps are not needed): the\n" +
+                "                                  range is cut into equal segments and each one gets just\n" +
+                "                                  enough evenly spaced entries for a linear interpolation\n" +
+                "                                  error of at most e; the segment offsets are written first\n" +
+                "    --segments n ................ Number of segments of an adaptive table (default " +
+                AdaptiveTable.defaultSegments + ")\n"
         );
     }
 
+    /**
+     * Lists the functions of the registry for the help menu
+     *
+     * @return Returns one indented line per function
+     */
+    private static String functionList() {
+        StringBuilder list = new StringBuilder();
+        for (String line : TableFunctions.describe())
+            list.append("                                    ").append(line).append('\n');
+        return list.toString();
+    }
+
+    /**
+     * Creates the exporter for a format
+     *
+     * @param output The channel to write the table to
+     * @param format The format to export the table in
+     * @param elementType The type to store the entries as
+     * @param byteOrder The byte order of binary entries
+     * @param numberOfColumns The number of columns in the output array
+     * @param appendF The text to append to every number of a text table of floats or doubles
+     * @param entryCount The number of entries in the table
+     * @param name The name of the array in source output
+     * @param description The comment to put above the array in source output
+     * @return Returns the exporter
+     */
+    private static TableExporter createExporter(WritableByteChannel output, ExportFormats format,
+                                                TableExporter.ElementTypes elementType, ByteOrder byteOrder,
+                                                int numberOfColumns, String appendF, long entryCount,
+                                                String name, String description) {
+        boolean float32 = elementType == TableExporter.ElementTypes.FLOAT32;
+        switch (format) {
+            case C:
+                String cType = float32 ? "float" : elementType == TableExporter.ElementTypes.FLOAT64 ? "double"
+                        : elementType == TableExporter.ElementTypes.Q15 ? "int16_t" : "int32_t";
+                return new TableTextWriter(output, numberOfColumns, float32 ? "f" : "", entryCount, elementType,
+                        "/* " + description + " */\n" + (float32 || elementType == TableExporter.ElementTypes.FLOAT64
+                        ? "" : "#include <stdint.h>\n\n") +
+                        "static const " + cType + " " + name + "[" + entryCount + "] = ", ";");
+            case JAVA:
+                String javaType = float32 ? "float" : elementType == TableExporter.ElementTypes.FLOAT64 ? "double"
+                        : elementType == TableExporter.ElementTypes.Q15 ? "short" : "int";
+                return new TableTextWriter(output, numberOfColumns, float32 ? "f" : "", entryCount, elementType,
+                        "/* " + description + " */\n" + "static final " + javaType + "[] " + name + " = ", ";");
+            case BINARY:
+                return new BinaryTableExporter(output, elementType, byteOrder);
+            default:
+                // Integer entries never get the suffix (an 'f' after 23170 is not a number)
+                boolean floating = float32 || elementType == TableExporter.ElementTypes.FLOAT64;
+                return new TableTextWriter(output, numberOfColumns, floating ? appendF : "", entryCount,
+                        elementType, "", "");
+        }
+    }
+
+    /**
+     * Computes the tables and hands the entries of each one to its exporter
+     *
+     * @param exporters The exporters to write the tables with (one per table of the computer)
+     * @param computer The computer of the entries
+     * @param entryCount The number of entries to write (the first ones of each table)
+     * @param elementType The type that the entries are stored as
+     * @return Returns the number of entries that were out of the range of a fixed point type
+     * @throws IOException If a table could not be written
+     */
+    private static long writeTable(TableExporter[] exporters, TableComputer computer, long entryCount,
+                                   TableExporter.ElementTypes elementType) throws IOException {
+        long saturated = 0;
+        double[][] blocks = new double[exporters.length][(int) Math.min(computeBlockSize, entryCount)];
+        for (long first = 0; first < entryCount; first += blocks[0].length) {
+            int count = (int) Math.min(blocks[0].length, entryCount - first);
+            computer.fill(first, count, blocks);
+            for (int table = 0; table < exporters.length; table++) {
+                for (int i = 0; i < count; i++) {
+                    if (elementType.saturates(blocks[table][i]))
+                        saturated++;
+                    exporters[table].write(blocks[table][i]);
+                }
+            }
+        }
+        for (TableExporter exporter : exporters)
+            exporter.finish();
+        return saturated;
+    }
+
+    /**
+     * Hands the entries of a table that is already computed to an exporter
+     *
+     * @param exporter The exporter to write the table with
+     * @param entries The entries of the table
+     * @param elementType The type that the entries are stored as
+     * @return Returns the number of entries that were out of the range of a fixed point type
+     * @throws IOException If the table could not be written
+     */
+    private static long writeTable(TableExporter exporter, double[] entries, TableExporter.ElementTypes elementType)
+            throws IOException {
+        long saturated = 0;
+        for (double entry : entries) {
+            if (elementType.saturates(entry))
+                saturated++;
+            exporter.write(entry);
+        }
+        exporter.finish();
+        return saturated;
+    }
+
+    /**
+     * Writes an adaptive table: the segment offsets (as 32 bit integers) and then the entries, in the same format
+     *
+     * @param output The channel to write the table to
+     * @param table The adaptive table
+     * @param format The format to export the table in
+     * @param elementType The type to store the entries as
+     * @param byteOrder The byte order of binary entries
+     * @param numberOfColumns The number of columns in the output arrays
+     * @param appendF The text to append to every number of a text table of floats or doubles
+     * @param name The name of the entries array in source output (the offsets are name + "_segments")
+     * @param description The comment to put above the entries array in source output
+     * @return Returns the number of entries that were out of the range of a fixed point type
+     * @throws IOException If the table could not be written
+     */
+    private static long writeAdaptiveTable(WritableByteChannel output, AdaptiveTable table, ExportFormats format,
+                                           TableExporter.ElementTypes elementType, ByteOrder byteOrder,
+                                           int numberOfColumns, String appendF, String name, String description)
+            throws IOException {
+        int[] offsets = table.offsets();
+        int segments = offsets.length - 1;
+        String segmentName = format == ExportFormats.JAVA ? name + "_SEGMENTS" : name + "_segments";
+        String segmentDescription = "segment s of the " + segments + " equal segments of " + name + " has the " +
+                "entries " + segmentName + "[s] to " + segmentName + "[s + 1] - 1, evenly spaced over the segment " +
+                "and including both of its ends";
+
+        TableExporter offsetExporter = createExporter(output, format, TableExporter.ElementTypes.INT32, byteOrder,
+                numberOfColumns, "", offsets.length, segmentName, segmentDescription);
+        for (int offset : offsets)
+            offsetExporter.write(offset);
+        offsetExporter.finish();
+
+        TableExporter exporter = createExporter(output, format, elementType, byteOrder, numberOfColumns, appendF,
+                table.size(), name, description);
+        return writeTable(exporter, table.entries(), elementType);
+    }
+
+    /**
+     * Writes every table to the output, one after the other. Uniform tables are computed together in one pass
+     * over the grid, so the first one goes straight to the output and the others are spooled to temporary
+     * files that are copied after it.
+     *
+     * @param output The channel to write the tables to
+     * @param adaptiveTables The adaptive tables, or null to compute uniform tables with the computer
+     * @param computer The computer of the entries of the uniform tables
+     * @param entryCount The number of entries of each uniform table
+     * @param format The format to export the tables in
+     * @param elementType The type to store the entries as
+     * @param byteOrder The byte order of binary entries
+     * @param numberOfColumns The number of columns in the output arrays
+     * @param appendF The text to append to every number of a text table of floats or doubles
+     * @param names The names of the arrays in source output
+     * @param descriptions The comments to put above the arrays in source output
+     * @return Returns the number of entries that were out of the range of a fixed point type
+     * @throws IOException If a table could not be written
+     */
+    private static long writeTables(WritableByteChannel output, AdaptiveTable[] adaptiveTables,
+                                    TableComputer computer, long entryCount, ExportFormats format,
+                                    TableExporter.ElementTypes elementType, ByteOrder byteOrder, int numberOfColumns,
+                                    String appendF, String[] names, String[] descriptions) throws IOException {
+        long saturated = 0;
+        if (adaptiveTables != null) {
+            for (int t = 0; t < adaptiveTables.length; t++)
+                saturated += writeAdaptiveTable(output, adaptiveTables[t], format, elementType, byteOrder,
+                        numberOfColumns, appendF, names[t], descriptions[t]);
+            return saturated;
+        }
+
+        FileChannel[] spools = new FileChannel[names.length];
+        try {
+            TableExporter[] exporters = new TableExporter[names.length];
+            for (int t = 0; t < names.length; t++) {
+                WritableByteChannel channel = output;
+                if (t > 0) {
+                    spools[t] = FileChannel.open(Files.createTempFile("table", ".tmp"), StandardOpenOption.READ,
+                            StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                    channel = spools[t];
+                }
+                exporters[t] = createExporter(channel, format, elementType, byteOrder, numberOfColumns, appendF,
+                        entryCount, names[t], descriptions[t]);
+            }
+            saturated = writeTable(exporters, computer, entryCount, elementType);
+
+            for (int t = 1; t < names.length; t++) {
+                long size = spools[t].position();
+                for (long copied = 0; copied < size; )
+                    copied += spools[t].transferTo(copied, size - copied, output);
+            }
+        } finally {
+            for (FileChannel spool : spools)
+                if (spool != null)
+                    spool.close();
+        }
+        return saturated;
+    }
+
     public static void main(String[] args) {
 
         // Arguments
-        Functions function = null;
+        List<String> functionSpecs = new ArrayList<>();
         AngleTypes angleType = AngleTypes.DEG;  // Default
         int totalSteps = 0;
         double startValue = defaultStartValue;  // Default
         double stopValue = 0;
         int numberOfColumns = defaultColumnQuantity;
         String appendF = "";
+        String outputFilename = null;
+        ExportFormats format = ExportFormats.TEXT;
+        TableExporter.ElementTypes elementType = TableExporter.ElementTypes.FLOAT64;
+        ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
+        String name = null;
+        boolean quarterWave = false;
+        boolean parallel = true;
+        int resyncInterval = 0;
+        double maxError = 0;
+        int segments = AdaptiveTable.defaultSegments;
+        boolean segmentsGiven = false;
 
         try {
             int i = 0;
             while (i < args.length) {
                 switch (args[i]) {
                     case "-fn":
-                        switch (args[++i]) {
-                            case "sin":
-                                function = Functions.SIN;
-                                break;
-                            case "cos":
-                                function = Functions.COS;
-                                break;
-                            case "tan":
-                                function = Functions.TAN;
-                                break;
-                            case "x2":
-                                function = Functions.X2;
-                                break;
-                            case "x3":
-                                function = Functions.X3;
-                                break;
-                            default:
-                                System.out.println("Error: invalid function, aborting." + args[i]);
+                        // A comma separated list makes one table per function
+                        for (String spec : args[++i].split(",")) {
+                            try {
+                                TableFunctions.get(spec, angleType);
+                            } catch (IllegalArgumentException e) {
+                                System.out.println("Error: invalid function, aborting." + args[i] + " (" +
+                                        e.getMessage() + ")");
                                 printHelp();
                                 System.exit(-1);
+                            }
+                            functionSpecs.add(spec.toLowerCase(Locale.ROOT));
                         }
                         break;
 
@@ -213,6 +450,119 @@ public class TrigTableGenerator {
                         appendF = "f";
                         break;
 
+                    case "--output":
+                    case "-o":
+                        outputFilename = args[++i];
+                        break;
+
+                    case "--format":
+                        switch (args[++i]) {
+                            case "text":
+                                format = ExportFormats.TEXT;
+                                break;
+                            case "c":
+                                format = ExportFormats.C;
+                                break;
+                            case "java":
+                                format = ExportFormats.JAVA;
+                                break;
+                            case "binary":
+                                format = ExportFormats.BINARY;
+                                break;
+                            default:
+                                System.out.println("Error: invalid format, aborting. " + args[i]);
+                                System.exit(-1);
+                        }
+                        break;
+
+                    case "--type":
+                    case "-t":
+                        switch (args[++i]) {
+                            case "float64":
+                                elementType = TableExporter.ElementTypes.FLOAT64;
+                                break;
+                            case "float32":
+                                elementType = TableExporter.ElementTypes.FLOAT32;
+                                break;
+                            case "q15":
+                                elementType = TableExporter.ElementTypes.Q15;
+                                break;
+                            case "q31":
+                                elementType = TableExporter.ElementTypes.Q31;
+                                break;
+                            default:
+                                System.out.println("Error: invalid type, aborting. " + args[i]);
+                                System.exit(-1);
+                        }
+                        break;
+
+                    case "--endian":
+                        switch (args[++i]) {
+                            case "little":
+                                byteOrder = ByteOrder.LITTLE_ENDIAN;
+                                break;
+                            case "big":
+                                byteOrder = ByteOrder.BIG_ENDIAN;
+                                break;
+                            default:
+                                System.out.println("Error: invalid byte order, aborting. " + args[i]);
+                                System.exit(-1);
+                        }
+                        break;
+
+                    case "--name":
+                    case "-n":
+                        name = args[++i];
+                        break;
+
+                    case "--quarter-wave":
+                        quarterWave = true;
+                        break;
+
+                    case "--sequential":
+                        parallel = false;
+                        break;
+
+                    case "--recurrence":
+                        try {
+                            resyncInterval = Integer.parseInt(args[++i]);
+                        } catch (NumberFormatException e) {
+                            System.out.println("Error: Non-integer where integer expected, aborting. " + args[i]);
+                            System.exit(-1);
+                        }
+                        if (resyncInterval < 1) {
+                            System.out.println("Error: the resync interval must be at least 1, aborting. " + args[i]);
+                            System.exit(-1);
+                        }
+                        break;
+
+                    case "--max-error":
+                        try {
+                            maxError = Double.parseDouble(args[++i]);
+                        } catch (NumberFormatException e) {
+                            System.out.println("Error: Non-number where number expected, aborting. " + args[i]);
+                            System.exit(-1);
+                        }
+                        if (!(maxError > 0)) {
+                            System.out.println("Error: the maximum error must be positive, aborting. " + args[i]);
+                            System.exit(-1);
+                        }
+                        break;
+
+                    case "--segments":
+                        try {
+                            segments = Integer.parseInt(args[++i]);
+                        } catch (NumberFormatException e) {
+                            System.out.println("Error: Non-integer where integer expected, aborting. " + args[i]);
+                            System.exit(-1);
+                        }
+                        if (segments < 1) {
+                            System.out.println("Error: there must be at least 1 segment, aborting. " + args[i]);
+                            System.exit(-1);
+                        }
+                        segmentsGiven = true;
+                        break;
+
                     default:
                         System.out.println("Warning: unknown argument, ignoring. " + args[i]);
                         break;
@@ -225,32 +575,131 @@ public class TrigTableGenerator {
         }
 
         // Make sure we have everything we need:
-        if (function == null || totalSteps <= 0 || stopValue <= 0) {
+        // An adaptive table picks its own number of entries
+        boolean adaptive = maxError > 0;
+        if (functionSpecs.isEmpty() || (totalSteps <= 0 && !adaptive) || stopValue <= 0) {
             System.out.println("Error: you are probably missing some arguments, see below:");
             printHelp();
             System.exit(-1);
         }
 
-        System.out.print("{\n ");
-        int computationNumber = 0;
-        int column = numberOfColumns + 1;
-        while (computationNumber <= totalSteps) {
-            if (--column == 0) {
-                column = numberOfColumns;
-                System.out.print("\n ");
+        if (adaptive && (quarterWave || resyncInterval > 0)) {
+            System.out.println("Error: an adaptive table cannot be a quarter wave or use the recurrence, aborting.");
+            System.exit(-1);
+        }
+        if (adaptive && (!(startValue < stopValue) || Double.isInfinite(stopValue - startValue))) {
+            System.out.println("Error: an adaptive table needs an initial value below the final value, aborting.");
+            System.exit(-1);
+        }
+        if (!adaptive && segmentsGiven) {
+            System.out.println("Error: the segments are only used by an adaptive table (--max-error), aborting.");
+            System.exit(-1);
+        }
+
+        // The quarter wave and the recurrence work on a single table of one of the original functions
+        Functions function = null;
+        if (functionSpecs.size() == 1) {
+            try {
+                function = Functions.valueOf(functionSpecs.get(0).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                function = null;
             }
+        }
+        if (resyncInterval > 0 && function != Functions.SIN && function != Functions.COS && function != Functions.TAN) {
+            System.out.println("Error: the recurrence needs a single sin, cos or tan table, aborting.");
+            System.exit(-1);
+        }
+        int tableCount = functionSpecs.size();
+        DoubleUnaryOperator[] operators = new DoubleUnaryOperator[tableCount];
+        String[] names = new String[tableCount];
+        String[] descriptions = new String[tableCount];
+        String[] titles = new String[tableCount];
+        for (int t = 0; t < tableCount; t++) {
+            String spec = functionSpecs.get(t);
+            operators[t] = TableFunctions.get(spec, angleType);
 
-            double x = (computationNumber * (stopValue - startValue)) / totalSteps;
-            String number = computeExpression(x, function, angleType);
-            String paddedNumber;
-            if (computationNumber == totalSteps)
-                paddedNumber = String.format("%-25s", number + appendF);
+            // The angle type is only worth a mention for the functions that it changes
+            titles[t] = spec + " table" + (TableFunctions.usesAngles(spec)
+                    ? " (" + angleType.name().toLowerCase() + ")" : "");
+            String baseName = spec.replaceAll("[^a-z0-9_]", "_");
+            if (format == ExportFormats.JAVA)
+                baseName = baseName.toUpperCase(Locale.ROOT);
+            if (name == null)
+                names[t] = baseName + (format == ExportFormats.JAVA ? "_TABLE" : "_table");
             else
-                paddedNumber = String.format("%-25s", number + appendF + ',');
-            System.out.print(paddedNumber);
+                names[t] = tableCount == 1 ? name : name + "_" + baseName;
+        }
+
+        // A quarter wave table only keeps the first quarter of one period of sin or cos, the rest is mirrored
+        long entryCount = totalSteps + 1L;
+        for (int t = 0; t < tableCount; t++)
+            descriptions[t] = titles[t] + ": " + entryCount + " entries from " + startValue + " to " + stopValue;
+        if (quarterWave) {
+            double period = angleType == AngleTypes.DEG ? 360 : 2 * Math.PI;
+            if ((function != Functions.SIN && function != Functions.COS) || totalSteps % 4 != 0
+                    || Math.abs(stopValue - startValue - period) > 1e-9 * period) {
+                System.out.println("Error: a quarter wave needs a single sin or cos table over one full period with a " +
+                        "multiple of 4 steps, aborting.");
+                System.exit(-1);
+            }
+            entryCount = totalSteps / 4 + 1;
+            String sign = function == Functions.SIN ? "" : "-";
+            descriptions[0] += ", first quarter wave only: for N = " + totalSteps + " and q = this table, " +
+                    "t[i] = q[i] for i <= N/4, " + sign + "q[N/2 - i] for i <= N/2, -q[i - N/2] for i <= 3N/4, " +
+                    (function == Functions.SIN ? "-" : "") + "q[N - i] otherwise";
+        }
+        // An adaptive table covers the same x as the uniform grid (0 to stop - start), and is built up front
+        AdaptiveTable[] adaptiveTables = null;
+        if (adaptive) {
+            adaptiveTables = new AdaptiveTable[tableCount];
+            for (int t = 0; t < tableCount; t++) {
+                adaptiveTables[t] = new AdaptiveTable(operators[t], 0, stopValue - startValue, segments, maxError);
+                descriptions[t] = titles[t] + ": " + adaptiveTables[t].size() + " entries in " + segments +
+                        " segments from " + startValue + " to " + stopValue + ", linear interpolation error at most " +
+                        adaptiveTables[t].maxError();
+            }
+        }
+
+        // The recurrence only knows sin, cos and tan (checked above), everything else is computed directly
+        TableComputer computer;
+        if (resyncInterval > 0)
+            computer = new TableComputer(function, angleType, startValue, stopValue, totalSteps, parallel,
+                    resyncInterval);
+        else
+            computer = new TableComputer(operators, startValue, stopValue, totalSteps, parallel);
+
+        // The table is formatted into large blocks that go straight to the file or standard output
+        long saturated = 0;
+        try {
+            if (outputFilename != null) {
+                try (FileChannel output = FileChannel.open(Paths.get(outputFilename), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    saturated = writeTables(output, adaptiveTables, computer, entryCount, format, elementType,
+                            byteOrder, numberOfColumns, appendF, names, descriptions);
+                }
+            } else {
+                System.out.flush();
+                saturated = writeTables(new FileOutputStream(FileDescriptor.out).getChannel(), adaptiveTables,
+                        computer, entryCount, format, elementType, byteOrder, numberOfColumns, appendF, names,
+                        descriptions);
+            }
+        } catch (IOException e) {
+            System.out.println("Error: unable to write the table, aborting.");
+            System.exit(-1);
+        }
 
-            computationNumber++;
+        // Standard output might be holding the table, so this goes to standard error
+        for (int t = 0; adaptive && t < tableCount; t++) {
+            System.err.println("Adaptive " + names[t] + ": " + adaptiveTables[t].size() + " entries in " + segments +
+                    " segments, largest error " + adaptiveTables[t].maxError() + " (a uniform table would need " +
+                    adaptiveTables[t].uniformSize() + " entries for the same error)");
+            if (adaptiveTables[t].segmentsOverBudget() > 0)
+                System.err.println("Warning: " + adaptiveTables[t].segmentsOverBudget() + " segments of " +
+                        names[t] + " could not meet the maximum error (the function is not finite or too steep " +
+                        "there).");
         }
-        System.out.println("\n}");
+        if (saturated > 0)
+            System.err.println("Warning: " + saturated + " entries were out of the " + elementType.name() +
+                    " range and were saturated.");
     }
 }
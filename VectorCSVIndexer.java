@@ -0,0 +1,161 @@
+import java.nio.ByteBuffer;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A CSV record indexer built on the (incubating) Vector API, in the style of simdjson/simdcsv.
+ * Each step loads one vector of bytes (16 to 64 depending on the CPU) and compares it against the quote,
+ * delimiter and newline characters to get three bitmasks. A prefix-XOR of the quote mask marks every byte
+ * that is inside of quotes, so the column boundaries are simply the unquoted delimiter and newline bits,
+ * which are then walked with Long.numberOfTrailingZeros instead of looking at every byte.<br>
+ * Direct (e.g. memory-mapped) buffers are copied into a small per-thread block first, since loading vectors
+ * straight from a ByteBuffer is not supported the same way across JDK versions (fromByteBuffer was replaced
+ * by fromMemorySegment). The copy is not what makes the engine slow on older JDKs: heap buffers, which are
+ * read in place, are just as slow there.<br>
+ * <b>Note:</b> the mask-to-bits conversion is only compiled to a single instruction on newer JDKs
+ * (it is emulated on JDK 17, where this engine is slower than the scalar one), so
+ * {@link CSVRecordIndexer#vector()} only picks it from JDK 21 on. Run {@link CSVIndexerBenchmark} to check
+ * on a specific JVM.<br>
+ * This class needs <code>--add-modules jdk.incubator.vector</code> to compile and run, use
+ * {@link CSVRecordIndexer#vector()} or {@link CSVRecordIndexer#vectorEngine()} to get it (or the scalar
+ * fallback) without depending on the module.
+ *
+ * @author <em>Zach Baldwin</em>
+ * @version 2026.10.18
+ */
+final class VectorCSVIndexer implements CSVRecordIndexer {
+
+    /** The vector shape used for classifying the bytes (at most 64 lanes so that every mask fits in a long) */
+    private static final VectorSpecies<Byte> species = ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE
+            ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+    /** The number of bytes classified per step */
+    private static final int laneCount = species.length();
+
+    /** The number of bytes copied out of a direct buffer at a time */
+    private static final int copyBlockSize = laneCount * 8;
+
+    /** The blocks that direct buffers are copied into (one per thread so that the indexer can be shared) */
+    private static final ThreadLocal<byte[]> copyBlocks = ThreadLocal.withInitial(() -> new byte[copyBlockSize]);
+
+    /**
+     * Find the columns of the record starting at a position in a buffer
+     * (see {@link CSVRecordIndexer#indexRecord})
+     */
+    @Override
+    public int indexRecord(ByteBuffer buffer, int position, int limit, byte delimiter,
+                           boolean endOfInput, CSVRecordView record) {
+
+        // All ones while inside of quotes at the end of the previous block
+        long quoteCarry = 0;
+
+        // The quotes in the current column (so that the view knows if it has to decode them)
+        int quoteCount = 0;
+
+        int fieldStart = position;
+        record.reset(buffer);
+
+        // Heap buffers are read in place, direct buffers through the copy block
+        // (the byte at buffer index i is at source[i + sourceShift])
+        byte[] source;
+        int sourceShift;
+        int sourceEnd;
+        if (buffer.hasArray()) {
+            source = buffer.array();
+            sourceShift = buffer.arrayOffset();
+            sourceEnd = limit;
+        } else {
+            source = copyBlocks.get();
+            sourceShift = 0;
+            sourceEnd = position;
+        }
+
+        int i = position;
+        for (; i + laneCount <= limit; i += laneCount) {
+            if (i + laneCount > sourceEnd) {
+                int length = Math.min(copyBlockSize, (limit - i) / laneCount * laneCount);
+                buffer.get(i, source, 0, length);
+                sourceShift = -i;
+                sourceEnd = i + length;
+            }
+
+            ByteVector block = ByteVector.fromArray(species, source, i + sourceShift);
+            long quotes = block.eq((byte) '\"').toLong();
+            long delimiters = block.eq(delimiter).toLong();
+            long newlines = block.eq((byte) '\n').toLong();
+
+            // Bit n is set when an odd number of quotes come before (or at) byte n
+            long insideQuotes = prefixXor(quotes) ^ quoteCarry;
+            long separators = (delimiters | newlines) & ~insideQuotes;
+
+            // Walk the column boundaries in this block
+            long unusedQuotes = quotes;
+            while (separators != 0) {
+                int bit = Long.numberOfTrailingZeros(separators);
+                long before = (1L << bit) - 1;
+                quoteCount += Long.bitCount(unusedQuotes & before);
+                unusedQuotes &= ~before;
+
+                int separator = i + bit;
+                if ((newlines & (1L << bit)) != 0) {
+                    record.addField(fieldStart, MappedCSVScanner.lineContentEnd(buffer, fieldStart, separator),
+                            quoteCount);
+                    return separator + 1;
+                }
+
+                record.addField(fieldStart, separator, quoteCount);
+                fieldStart = separator + 1;
+                quoteCount = 0;
+                separators &= separators - 1;
+            }
+            quoteCount += Long.bitCount(unusedQuotes);
+
+            // Carry the quote state of the last byte over to the next block
+            quoteCarry = -((insideQuotes >>> (laneCount - 1)) & 1);
+        }
+
+        // Finish the bytes that do not fill a whole vector one at a time
+        boolean quoteParity = quoteCarry != 0;
+        for (; i < limit; i++) {
+            byte currentByte = buffer.get(i);
+
+            if (currentByte == '\"') {
+                quoteParity = !quoteParity;
+                quoteCount++;
+            } else if (!quoteParity) {
+                if (currentByte == delimiter) {
+                    record.addField(fieldStart, i, quoteCount);
+                    fieldStart = i + 1;
+                    quoteCount = 0;
+                } else if (currentByte == '\n') {
+                    record.addField(fieldStart, MappedCSVScanner.lineContentEnd(buffer, fieldStart, i), quoteCount);
+                    return i + 1;
+                }
+            }
+        }
+
+        // No newline, this is only a record if nothing else can follow it
+        if (!endOfInput || position == limit)
+            return -1;
+
+        record.addField(fieldStart, MappedCSVScanner.lineContentEnd(buffer, fieldStart, limit), quoteCount);
+        return limit;
+    }
+
+    /**
+     * Compute the prefix-XOR of a bitmask (bit n of the result is the XOR of bits 0 to n of the input)
+     *
+     * @param bits The bitmask to scan
+     * @return Returns the running parity of the bits
+     */
+    private static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+}